@@ -0,0 +1,59 @@
+package som;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import som.task.Deadline;
+import som.task.Event;
+import som.task.Task;
+import som.task.Todo;
+
+/**
+ * Creates the task lists the benchmarks run against.
+ * <p>Lists are generated from a fixed seed, so every run measures the same data: an even
+ * mix of todos, deadlines and events in random date order, half of them done, with
+ * descriptions drawn from a small vocabulary so that searches have realistic hit rates.</p>
+ */
+final class BenchmarkTasks {
+    static final String[] WORDS = {"read", "book", "return", "library", "project", "meeting", "buy",
+        "groceries", "submit", "report", "call", "mom", "gym", "session", "pay", "bills", "notebook", "review"};
+    private static final long SEED = 42;
+
+    private BenchmarkTasks() {
+    }
+
+    /**
+     * Returns a list of the given size, the same for every call with that size.
+     *
+     * @param size the number of tasks.
+     * @return a new modifiable list of new tasks.
+     */
+    static List<Task> create(int size) {
+        Random random = new Random(SEED);
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + random.nextInt(1000);
+            String day = String.format("2099-%02d-%02d", random.nextInt(12) + 1, random.nextInt(28) + 1);
+            Task task;
+            try {
+                task = switch (i % 3) {
+                case 0:
+                    yield new Todo(description);
+                case 1:
+                    yield new Deadline(description, day + " 1800");
+                default:
+                    yield new Event(description, day + " 1000", day + " 1200");
+                };
+            } catch (SomException e) {
+                throw new IllegalStateException(e);
+            }
+            if (random.nextBoolean()) {
+                task.markAsDone();
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
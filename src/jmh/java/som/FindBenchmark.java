@@ -0,0 +1,77 @@
+package som;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import som.task.Task;
+
+/**
+ * Measures {@link TaskList#findTasks(String)} with and without the trigram index.
+ * <p>The setup checks that both searches return the same tasks in the same order.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FindBenchmark {
+    @Param({"10000", "100000"})
+    private int size;
+    @Param({"book", "libr", "meeting rev", "xyz"})
+    private String query;
+
+    private TaskList indexed;
+    private TaskList scanned;
+
+    /**
+     * Builds the lists searched by every invocation.
+     */
+    @Setup
+    public void setUp() {
+        List<Task> tasks = BenchmarkTasks.create(size);
+        indexed = new TaskList(new ArrayList<>(tasks));
+        System.setProperty("som.index.trigrams", "false");
+        try {
+            scanned = new TaskList(new ArrayList<>(tasks));
+        } finally {
+            System.clearProperty("som.index.trigrams");
+        }
+        if (!indexed.findTasks(query).equals(scanned.findTasks(query))) {
+            throw new IllegalStateException("Indexed and scanned results differ for '" + query + "'");
+        }
+    }
+
+    /**
+     * Finds the query through the trigram index.
+     *
+     * @return the matches, so that the search is not optimised away.
+     */
+    @Benchmark
+    public List<Task> findIndexed() {
+        return indexed.findTasks(query);
+    }
+
+    /**
+     * Finds the query by scanning every task.
+     *
+     * @return the matches, so that the search is not optimised away.
+     */
+    @Benchmark
+    public List<Task> findScanned() {
+        return scanned.findTasks(query);
+    }
+}
@@ -0,0 +1,56 @@
+package som;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import som.command.Command;
+
+/**
+ * Measures {@link Parser#parse(String)} for every command type.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ParserBenchmark {
+    @Param({
+        "todo read book",
+        "deadline return book /by 2099-03-10 1300",
+        "event project meeting /from 2099-03-11 1000 /to 2099-03-11 1200",
+        "mark 12",
+        "unmark 12",
+        "delete 12",
+        "find book",
+        "find -w book",
+        "find~ bok",
+        "on 2099-03-11",
+        "between 2099-03-11 /to 2099-03-17 1800",
+        "sort",
+        "list",
+        "help",
+        "bye"
+    })
+    private String input;
+
+    /**
+     * Parses the input into a command.
+     *
+     * @return the command, so that parsing is not optimised away.
+     */
+    @Benchmark
+    public Command parse() throws SomException {
+        return Parser.parse(input);
+    }
+}
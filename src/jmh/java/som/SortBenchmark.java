@@ -0,0 +1,87 @@
+package som;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import som.task.Task;
+
+/**
+ * Measures {@link TaskList#sortTasks()} with and without the time index.
+ * <p>Every invocation sorts freshly shuffled lists, since sorting a sorted list does no work.
+ * The search indexes are switched off so that rebuilding them does not slow down the setup;
+ * sorting only marks them stale anyway.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Dsom.index.tokens=false", "-Dsom.index.trigrams=false",
+    "-Dsom.index.intervals=false"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SortBenchmark {
+    @Param({"10000", "100000"})
+    private int size;
+
+    private List<Task> shuffled;
+    private TaskList unsorted;
+    private TaskList unsortedWithoutIndex;
+
+    /**
+     * Creates the tasks to shuffle.
+     */
+    @Setup
+    public void setUp() {
+        shuffled = BenchmarkTasks.create(size);
+    }
+
+    /**
+     * Builds fresh unsorted lists.
+     */
+    @Setup(Level.Invocation)
+    public void shuffle() {
+        Collections.shuffle(shuffled, new Random(size));
+        unsorted = new TaskList(new ArrayList<>(shuffled));
+        System.setProperty("som.index.time", "false");
+        try {
+            unsortedWithoutIndex = new TaskList(new ArrayList<>(shuffled));
+        } finally {
+            System.clearProperty("som.index.time");
+        }
+    }
+
+    /**
+     * Sorts a shuffled list by reading the order off the time index.
+     *
+     * @return whether the order changed, so that the sort is not optimised away.
+     */
+    @Benchmark
+    public boolean sortIndexed() {
+        return unsorted.sortTasks();
+    }
+
+    /**
+     * Sorts a shuffled list with {@link Collections#sort(List)}.
+     *
+     * @return whether the order changed, so that the sort is not optimised away.
+     */
+    @Benchmark
+    public boolean sortCompared() {
+        return unsortedWithoutIndex.sortTasks();
+    }
+}
@@ -0,0 +1,74 @@
+package som;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import som.task.Task;
+
+/**
+ * Measures {@link Storage#load()} and {@link Storage#save(List)} in both storage formats.
+ * <p>Journaling is off and every save is forced to disk before it returns, so each
+ * operation reads or writes the whole data file.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Dsom.journal=false", "-Dsom.durability=fsync"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StorageBenchmark {
+    @Param({"1000", "10000", "100000"})
+    private int size;
+    @Param({"text", "binary"})
+    private String format;
+
+    private List<Task> tasks;
+
+    /**
+     * Writes a data file of the benchmarked size and format to a new temporary directory.
+     */
+    @Setup
+    public void setUp() throws IOException, SomException {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // load() reports its speed on every call
+        System.setProperty("som.format", format);
+        Storage.setDataDirectory(Files.createTempDirectory("som-bench"));
+        tasks = BenchmarkTasks.create(size);
+        Storage.save(tasks);
+        Storage.flush();
+    }
+
+    /**
+     * Reads the data file.
+     *
+     * @return the loaded tasks, so that loading is not optimised away.
+     */
+    @Benchmark
+    public List<Task> load() throws SomException {
+        return Storage.load();
+    }
+
+    /**
+     * Rewrites the data file and waits until it is on disk.
+     */
+    @Benchmark
+    public void save() throws SomException {
+        Storage.save(tasks);
+        Storage.flush();
+    }
+}
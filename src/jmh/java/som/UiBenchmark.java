@@ -0,0 +1,53 @@
+package som;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import som.task.Task;
+
+/**
+ * Measures rendering the task list with {@link Ui#showList(List)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UiBenchmark {
+    @Param({"100", "10000", "100000"})
+    private int size;
+
+    private final Ui ui = new Ui();
+    private List<Task> tasks;
+
+    /**
+     * Creates the list to render.
+     */
+    @Setup
+    public void setUp() {
+        tasks = BenchmarkTasks.create(size);
+    }
+
+    /**
+     * Renders the whole list.
+     *
+     * @return the rendered list, so that rendering is not optimised away.
+     */
+    @Benchmark
+    public String showList() {
+        return ui.showList(tasks);
+    }
+}
@@ -0,0 +1,186 @@
+package som;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import som.task.DateTimes;
+import som.task.Deadline;
+import som.task.Event;
+import som.task.Task;
+import som.task.Todo;
+
+/**
+ * Reads and writes the binary data file used with {@link Config.StorageFormat#BINARY}.
+ * <p>Layout, all numbers big-endian:</p>
+ * <pre>
+ * header   int magic "SOMB", short version, long next ID (0 if unknown)
+ * strings  int count, then per string: int length, UTF-8 bytes
+ * records  int count, then per task a fixed 30-byte record:
+ *          byte type (T/D/E), byte done (0/1), int description string index,
+ *          long time1, long time2 (epoch minutes; by for deadlines, from/to for events),
+ *          long task ID
+ * </pre>
+ * <p>Version 1 files, written before tasks had IDs, have 22-byte records without the ID
+ * and are still read; their tasks are given IDs when they join a {@link TaskList}.
+ * Version 2 files, written before the next ID was saved, have no next ID.</p>
+ * <p>Descriptions go through the string table, so repeated descriptions are stored once.
+ * Dates are stored as epoch minutes, so loading needs no date parsing.</p>
+ *
+ * @author Darien Tan
+ */
+class BinaryTaskFile {
+    static final int MAGIC = 0x534F4D42; // "SOMB"
+    static final short VERSION = 3;
+    private static final short VERSION_WITHOUT_IDS = 1;
+    private static final short VERSION_WITHOUT_NEXT_ID = 2;
+    private static final int RECORD_SIZE = 30;
+    private static final int ID_SIZE = 8;
+
+    /**
+     * Writes the tasks in binary form.
+     *
+     * @param out the stream to write to.
+     * @param tasks the tasks to write, in list order.
+     * @param nextId the next ID to hand out, or 0 if unknown.
+     * @throws IOException if an I/O error occurs during writing.
+     */
+    static void write(DataOutputStream out, List<Task> tasks, long nextId) throws IOException {
+        Map<String, Integer> indices = new HashMap<>();
+        int[] descIndices = new int[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            descIndices[i] = indices.computeIfAbsent(tasks.get(i).getDescription(), k -> indices.size());
+        }
+        String[] strings = new String[indices.size()];
+        indices.forEach((s, i) -> strings[i] = s);
+
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(nextId);
+        out.writeInt(strings.length);
+        for (String s : strings) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        out.writeInt(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            long time1 = 0;
+            long time2 = 0;
+            byte type;
+            if (task instanceof Deadline) {
+                type = 'D';
+                time1 = DateTimes.toEpochMinute(((Deadline) task).getBy());
+            } else if (task instanceof Event) {
+                type = 'E';
+                time1 = DateTimes.toEpochMinute(((Event) task).getFrom());
+                time2 = DateTimes.toEpochMinute(((Event) task).getTo());
+            } else {
+                type = 'T';
+            }
+            out.writeByte(type);
+            out.writeByte(task.isDone() ? 1 : 0);
+            out.writeInt(descIndices[i]);
+            out.writeLong(time1);
+            out.writeLong(time2);
+            out.writeLong(task.getId());
+        }
+    }
+
+    /**
+     * Reads the tasks from a binary data file.
+     * <p>Records with an unknown type or description index are skipped with a warning,
+     * like corrupt lines in the text format.</p>
+     *
+     * @param buffer the contents of the file.
+     * @param tasks the list the tasks are added to, in file order.
+     * @return the next ID to hand out, or 0 if the file does not record one.
+     * @throws SomException if the file is not a binary data file or is truncated.
+     */
+    static long read(ByteBuffer buffer, List<Task> tasks) throws SomException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new SomException("Data file is not a Som binary file.");
+            }
+            short version = buffer.getShort();
+            if (version != VERSION && version != VERSION_WITHOUT_NEXT_ID && version != VERSION_WITHOUT_IDS) {
+                throw new SomException("Unsupported data file version: " + version);
+            }
+            long nextId = version == VERSION ? Math.max(0, buffer.getLong()) : 0;
+
+            int stringCount = buffer.getInt();
+            if (stringCount < 0 || stringCount > buffer.remaining() / 4) {
+                throw new BufferUnderflowException();
+            }
+            String[] strings = new String[stringCount];
+            byte[] scratch = new byte[256];
+            for (int i = 0; i < strings.length; i++) {
+                int length = buffer.getInt();
+                if (scratch.length < length) {
+                    scratch = new byte[Math.max(length, scratch.length * 2)];
+                }
+                buffer.get(scratch, 0, length);
+                strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+
+            int count = buffer.getInt();
+            boolean hasIds = version != VERSION_WITHOUT_IDS;
+            int recordSize = hasIds ? RECORD_SIZE : RECORD_SIZE - ID_SIZE;
+            if ((long) count * recordSize > buffer.remaining()) {
+                throw new BufferUnderflowException();
+            }
+            for (int i = 0; i < count; i++) {
+                try {
+                    tasks.add(readRecord(buffer, strings, hasIds));
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Skipping corrupt task record " + (i + 1) + "\nError: " + e.getMessage());
+                }
+            }
+            return nextId;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new SomException("Data file is truncated.");
+        }
+    }
+
+    private static Task readRecord(ByteBuffer buffer, String[] strings, boolean hasIds) {
+        byte type = buffer.get();
+        boolean isDone = buffer.get() == 1;
+        int desc = buffer.getInt();
+        long time1 = buffer.getLong();
+        long time2 = buffer.getLong();
+        long id = hasIds ? buffer.getLong() : 0;
+        if (desc < 0 || desc >= strings.length) {
+            throw new IllegalArgumentException("Missing Description");
+        }
+
+        Task task;
+        try {
+            task = switch (type) {
+            case 'T':
+                yield new Todo(strings[desc]);
+            case 'D':
+                yield new Deadline(strings[desc], DateTimes.fromEpochMinute(time1));
+            case 'E':
+                yield new Event(strings[desc], DateTimes.fromEpochMinute(time1), DateTimes.fromEpochMinute(time2));
+            default:
+                throw new IllegalArgumentException("Unknown task type");
+            };
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid date");
+        }
+        if (isDone) {
+            task.markAsDone();
+        }
+        task.setId(Math.max(0, id));
+        return task;
+    }
+
+}
@@ -0,0 +1,223 @@
+package som;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Holds the runtime settings of the Som chatbot.
+ * <p>Settings are read from JVM system properties (e.g. {@code -Dsom.journal=false})
+ * so they can be changed without touching the data file. Every setting has a
+ * default that matches the behaviour of a plain {@code java -jar som.jar} run.</p>
+ *
+ * @author Darien Tan
+ */
+public class Config {
+    private static final String DATA_DIR = "som.data.dir";
+    private static final String JOURNAL = "som.journal";
+    private static final String JOURNAL_COMPACT_THRESHOLD = "som.journal.compact";
+    private static final String DURABILITY = "som.durability";
+    private static final String FLUSH_COUNT = "som.flush.count";
+    private static final String FLUSH_MILLIS = "som.flush.millis";
+    private static final String FORMAT = "som.format";
+    private static final String TOKEN_INDEX = "som.index.tokens";
+    private static final String TRIGRAM_INDEX = "som.index.trigrams";
+    private static final String INTERVAL_INDEX = "som.index.intervals";
+    private static final String TIME_INDEX = "som.index.time";
+    private static final String AUTO_SORT = "som.sort.auto";
+    private static final String COLUMNAR = "som.tasks.columnar";
+    private static final String REMINDERS = "som.reminders";
+    private static final String REMINDER_LEAD = "som.reminders.lead";
+    private static final String UNDO_DEPTH = "som.undo.depth";
+    private static final String UNDO_TASKS = "som.undo.tasks";
+
+    /**
+     * Controls when saved changes reach the disk.
+     */
+    public enum Durability {
+        /** Every change is written and forced to disk before the command returns. */
+        FSYNC,
+        /** Changes are written in batches by a background thread, each batch forced to disk. */
+        GROUP_COMMIT,
+        /** Changes are written in batches by a background thread and left to the OS to flush. */
+        ASYNC
+    }
+
+    /**
+     * Selects how the data file is encoded.
+     */
+    public enum StorageFormat {
+        /** One pipe-delimited line per task in som.txt. */
+        TEXT,
+        /** Fixed-size binary records with a string table in som.bin. */
+        BINARY
+    }
+
+    /**
+     * Returns the directory holding the data file and its journal.
+     *
+     * @return the data directory, ./data by default.
+     */
+    public static Path getDataDirectory() {
+        return Paths.get(System.getProperty(DATA_DIR, "data"));
+    }
+
+    /**
+     * Returns whether mutations are appended to a journal instead of rewriting the data file.
+     *
+     * @return true unless journaling has been switched off.
+     */
+    public static boolean isJournalEnabled() {
+        return Boolean.parseBoolean(System.getProperty(JOURNAL, "true"));
+    }
+
+    /**
+     * Returns the number of journal records after which the journal is folded into the data file.
+     *
+     * @return the compaction threshold, at least 1.
+     */
+    public static int getJournalCompactThreshold() {
+        return Math.max(1, Integer.getInteger(JOURNAL_COMPACT_THRESHOLD, 1000));
+    }
+
+    /**
+     * Returns how saved changes are written to disk, e.g. {@code -Dsom.durability=fsync}.
+     *
+     * @return the durability mode, group commit by default.
+     */
+    public static Durability getDurability() {
+        String mode = System.getProperty(DURABILITY, "group-commit");
+        try {
+            return Durability.valueOf(mode.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Unknown durability mode '" + mode + "', using group-commit.");
+            return Durability.GROUP_COMMIT;
+        }
+    }
+
+    /**
+     * Returns the number of pending changes that triggers a background write.
+     *
+     * @return the flush count threshold, at least 1.
+     */
+    public static int getFlushCount() {
+        return Math.max(1, Integer.getInteger(FLUSH_COUNT, 256));
+    }
+
+    /**
+     * Returns the longest time a change may wait before a background write.
+     *
+     * @return the flush time threshold in milliseconds, at least 0.
+     */
+    public static long getFlushMillis() {
+        return Math.max(0, Long.getLong(FLUSH_MILLIS, 100));
+    }
+
+    /**
+     * Returns the encoding of the data file, e.g. {@code -Dsom.format=binary}.
+     *
+     * @return the storage format, text by default.
+     */
+    public static StorageFormat getStorageFormat() {
+        String format = System.getProperty(FORMAT, "text");
+        try {
+            return StorageFormat.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Unknown storage format '" + format + "', using text.");
+            return StorageFormat.TEXT;
+        }
+    }
+
+    /**
+     * Returns whether the task list keeps a word index for whole-word searches.
+     *
+     * @return true unless the index has been switched off.
+     */
+    public static boolean isTokenIndexEnabled() {
+        return Boolean.parseBoolean(System.getProperty(TOKEN_INDEX, "true"));
+    }
+
+    /**
+     * Returns whether the task list keeps a trigram index for substring searches.
+     *
+     * @return true unless the index has been switched off.
+     */
+    public static boolean isTrigramIndexEnabled() {
+        return Boolean.parseBoolean(System.getProperty(TRIGRAM_INDEX, "true"));
+    }
+
+    /**
+     * Returns whether the task list keeps an interval tree for date-range searches.
+     *
+     * @return true unless the index has been switched off.
+     */
+    public static boolean isIntervalIndexEnabled() {
+        return Boolean.parseBoolean(System.getProperty(INTERVAL_INDEX, "true"));
+    }
+
+    /**
+     * Returns whether the task list keeps its deadlines and events ordered by date, so sorting needs no comparisons.
+     *
+     * @return true unless the index has been switched off.
+     */
+    public static boolean isTimeIndexEnabled() {
+        return Boolean.parseBoolean(System.getProperty(TIME_INDEX, "true"));
+    }
+
+    /**
+     * Returns whether the task list is kept sorted by date, with new tasks inserted in order.
+     *
+     * @return true if auto-sort has been switched on, e.g. {@code -Dsom.sort.auto=true}.
+     */
+    public static boolean isAutoSortEnabled() {
+        return Boolean.parseBoolean(System.getProperty(AUTO_SORT, "false"));
+    }
+
+    /**
+     * Returns whether tasks are stored in primitive columns to save memory on very large lists.
+     * <p>See {@link TaskColumns}. The search and date indexes are not used in this mode.</p>
+     *
+     * @return true if columnar storage has been switched on, e.g. {@code -Dsom.tasks.columnar=true}.
+     */
+    public static boolean isColumnarEnabled() {
+        return Boolean.parseBoolean(System.getProperty(COLUMNAR, "false"));
+    }
+
+    /**
+     * Returns whether the GUI reminds the user of deadlines and events shortly before they are due.
+     *
+     * @return true unless reminders have been switched off.
+     */
+    public static boolean isRemindersEnabled() {
+        return Boolean.parseBoolean(System.getProperty(REMINDERS, "true"));
+    }
+
+    /**
+     * Returns how long before a deadline or the start of an event its reminder is shown.
+     *
+     * @return the lead time in minutes, 60 by default and at least 0.
+     */
+    public static long getReminderLeadMinutes() {
+        return Math.max(0, Long.getLong(REMINDER_LEAD, 60));
+    }
+
+    /**
+     * Returns how many changes can be undone, e.g. {@code -Dsom.undo.depth=20}.
+     * <p>See {@link UndoHistory}. 0 switches undo off.</p>
+     *
+     * @return the number of steps kept, 100 by default and at least 0.
+     */
+    public static int getUndoDepth() {
+        return Math.max(0, Integer.getInteger(UNDO_DEPTH, 100));
+    }
+
+    /**
+     * Returns how many tasks the changes that can be undone may cover between them,
+     * e.g. {@code -Dsom.undo.tasks=100000}.
+     * <p>See {@link UndoHistory}. A sort covers every task in the list.</p>
+     *
+     * @return the number of tasks, 1,000,000 by default and at least 1.
+     */
+    public static int getUndoTasks() {
+        return Math.max(1, Integer.getInteger(UNDO_TASKS, 1_000_000));
+    }
+}
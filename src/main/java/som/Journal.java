@@ -0,0 +1,257 @@
+package som;
+
+import java.util.Collections;
+import java.util.List;
+
+import som.task.Task;
+
+/**
+ * Describes the records appended to the journal kept next to the data file.
+ * <p>Instead of rewriting the whole data file after every change, each mutation is
+ * appended to the journal as one short record. On startup {@link Storage} replays the
+ * journal on top of the data file, and once the journal grows past a threshold it is
+ * folded back into the data file.</p>
+ * <p>Record format: OP | ARGS, e.g. {@code A | #12 | T | 0 | read book},
+ * {@code I | 3 | #13 | T | 0 | read book}, {@code M | 2}, {@code D | 0} or {@code S}. Added
+ * tasks are written with their IDs, see {@link Storage#encodeLine(Task)}; records from
+ * before tasks had IDs have none. Mark, unmark and delete records name tasks by position,
+ * and may name several at once as a list of indexes and ranges, e.g. {@code D | 3,9-5000}.
+ * The first line is a header tying the journal to the exact data file it was started on:
+ * {@code H | LENGTH | CRC32}.</p>
+ *
+ * @author Darien Tan
+ */
+public class Journal {
+    private static final String SEPARATOR = " | ";
+
+    /**
+     * Returns the record for a task appended to the end of the list.
+     *
+     * @param task the added task.
+     * @return the journal record.
+     */
+    public static String add(Task task) {
+        return "A" + SEPARATOR + Storage.encodeLine(task);
+    }
+
+    /**
+     * Returns the record for a task inserted into the middle of the list, e.g. in auto-sort mode.
+     *
+     * @param index the 0-based index the task was inserted at.
+     * @param task the inserted task.
+     * @return the journal record.
+     */
+    public static String insert(int index, Task task) {
+        return "I" + SEPARATOR + index + SEPARATOR + Storage.encodeLine(task);
+    }
+
+    /**
+     * Returns the record for marking the task at the given index as done.
+     *
+     * @param index the 0-based index of the marked task.
+     * @return the journal record.
+     */
+    public static String mark(int index) {
+        return "M" + SEPARATOR + index;
+    }
+
+    /**
+     * Returns the record for marking the task at the given index as not done.
+     *
+     * @param index the 0-based index of the unmarked task.
+     * @return the journal record.
+     */
+    public static String unmark(int index) {
+        return "U" + SEPARATOR + index;
+    }
+
+    /**
+     * Returns the record for removing the task at the given index.
+     *
+     * @param index the 0-based index of the removed task.
+     * @return the journal record.
+     */
+    public static String delete(int index) {
+        return "D" + SEPARATOR + index;
+    }
+
+    /**
+     * Returns the record for marking the tasks at the given indexes as done.
+     *
+     * @param indexes the distinct 0-based indexes of the marked tasks, in ascending order.
+     * @return the journal record.
+     */
+    public static String mark(int[] indexes) {
+        return "M" + SEPARATOR + formatIndexes(indexes);
+    }
+
+    /**
+     * Returns the record for marking the tasks at the given indexes as not done.
+     *
+     * @param indexes the distinct 0-based indexes of the unmarked tasks, in ascending order.
+     * @return the journal record.
+     */
+    public static String unmark(int[] indexes) {
+        return "U" + SEPARATOR + formatIndexes(indexes);
+    }
+
+    /**
+     * Returns the record for removing the tasks at the given indexes in one step.
+     *
+     * @param indexes the distinct 0-based indexes of the removed tasks, in ascending order.
+     * @return the journal record.
+     */
+    public static String delete(int[] indexes) {
+        return "D" + SEPARATOR + formatIndexes(indexes);
+    }
+
+    /**
+     * Writes ascending indexes as a list with runs collapsed into ranges, e.g. 3,9-5000.
+     */
+    private static String formatIndexes(int[] indexes) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < indexes.length; i++) {
+            int runStart = i;
+            while (i + 1 < indexes.length && indexes[i + 1] == indexes[i] + 1) {
+                i++;
+            }
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(indexes[runStart]);
+            if (i > runStart) {
+                sb.append('-').append(indexes[i]);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the record for sorting the list by date.
+     *
+     * @return the journal record.
+     */
+    public static String sort() {
+        return "S";
+    }
+
+    /**
+     * Returns the header binding a journal to the data file it extends.
+     *
+     * @param length the length of the data file in bytes.
+     * @param checksum the CRC32 of the data file.
+     * @return the header line.
+     */
+    static String header(long length, long checksum) {
+        return "H" + SEPARATOR + length + SEPARATOR + Long.toHexString(checksum);
+    }
+
+    /**
+     * Checks whether a header line was written for a data file of the given length and checksum.
+     * <p>A journal whose header does not match was already folded into the data file
+     * (e.g. the app stopped midway through a compaction) and must not be replayed.</p>
+     *
+     * @param line the first line of the journal.
+     * @param length the length of the current data file in bytes.
+     * @param checksum the CRC32 of the current data file.
+     * @return true if the journal belongs to the current data file.
+     */
+    static boolean isHeaderOf(String line, long length, long checksum) {
+        return header(length, checksum).equals(line.trim());
+    }
+
+    /**
+     * Applies a single journal record to the list of tasks loaded so far.
+     *
+     * @param line the raw record from the journal.
+     * @param tasks the tasks to update in place.
+     * @return the ID of the task the record added, or 0 if it added none.
+     * @throws SomException if the added task carries invalid data.
+     * @throws IllegalArgumentException if the record is malformed.
+     */
+    static long replay(String line, List<Task> tasks) throws SomException {
+        String record = line.trim();
+        if (record.equals("S")) {
+            Collections.sort(tasks);
+            return 0;
+        }
+        if (record.length() < 4 || !record.startsWith(SEPARATOR, 1)) {
+            throw new IllegalArgumentException("Malformed record");
+        }
+
+        String args = record.substring(4);
+        switch (record.charAt(0)) {
+        case 'A': {
+            Task task = Storage.parseTask(args);
+            tasks.add(task);
+            return task.getId();
+        }
+        case 'I': {
+            int separator = args.indexOf(SEPARATOR);
+            if (separator == -1) {
+                throw new IllegalArgumentException("Missing task");
+            }
+            int index = Integer.parseInt(args.substring(0, separator).trim());
+            if (index < 0 || index > tasks.size()) {
+                throw new IllegalArgumentException("Index out of range: " + index);
+            }
+            Task task = Storage.parseTask(args.substring(separator + SEPARATOR.length()));
+            tasks.add(index, task);
+            return task.getId();
+        }
+        case 'M':
+            for (int index : parseIndexes(args, tasks)) {
+                TaskList.setDone(tasks, index, true);
+            }
+            break;
+        case 'U':
+            for (int index : parseIndexes(args, tasks)) {
+                TaskList.setDone(tasks, index, false);
+            }
+            break;
+        case 'D':
+            TaskList.removeSorted(tasks, parseIndexes(args, tasks));
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown record type");
+        }
+        return 0;
+    }
+
+    /**
+     * Reads a list of indexes and ranges written by {@link #formatIndexes(int[])}, or a single index.
+     */
+    private static int[] parseIndexes(String arg, List<Task> tasks) {
+        String[] parts = arg.trim().split(",");
+        int count = 0;
+        int[][] runs = new int[parts.length][];
+        for (int i = 0; i < parts.length; i++) {
+            int dash = parts[i].indexOf('-');
+            int from = parseIndex(dash < 0 ? parts[i] : parts[i].substring(0, dash), tasks);
+            int to = dash < 0 ? from : parseIndex(parts[i].substring(dash + 1), tasks);
+            int previous = i == 0 ? -1 : runs[i - 1][1];
+            if (from > to || from <= previous) {
+                throw new IllegalArgumentException("Indexes out of order: " + arg);
+            }
+            runs[i] = new int[] {from, to};
+            count += to - from + 1;
+        }
+
+        int[] indexes = new int[count];
+        count = 0;
+        for (int[] run : runs) {
+            for (int index = run[0]; index <= run[1]; index++) {
+                indexes[count++] = index;
+            }
+        }
+        return indexes;
+    }
+
+    private static int parseIndex(String arg, List<Task> tasks) {
+        int index = Integer.parseInt(arg.trim()); // NumberFormatException is an IllegalArgumentException
+        if (index < 0 || index >= tasks.size()) {
+            throw new IllegalArgumentException("Index out of range: " + index);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,88 @@
+package som;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how often the caches of the Som chatbot are used, so their hit rates can be checked at runtime.
+ * <p>Counters are updated from any thread without locking and can be shown with the
+ * {@code metrics} command.</p>
+ *
+ * @author Darien Tan
+ */
+public class Metrics {
+    /** The cached lines returned by {@link som.task.Task#encode()}. */
+    public static final Cache ENCODED_LINES = new Cache("Encoded lines");
+    /** The cached strings returned by {@link som.task.Task#toString()}. */
+    public static final Cache DISPLAY_STRINGS = new Cache("Display strings");
+
+    private static final List<Cache> CACHES = List.of(ENCODED_LINES, DISPLAY_STRINGS);
+
+    public static List<Cache> getCaches() {
+        return CACHES;
+    }
+
+    /**
+     * Sets every counter back to zero.
+     */
+    public static void reset() {
+        for (Cache cache : CACHES) {
+            cache.reset();
+        }
+    }
+
+    /**
+     * Counts the hits and misses of one cache.
+     */
+    public static class Cache {
+        private final String name;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        Cache(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Records a lookup that was answered from the cache.
+         */
+        public void hit() {
+            hits.increment();
+        }
+
+        /**
+         * Records a lookup that had to compute its value.
+         */
+        public void miss() {
+            misses.increment();
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public long getHits() {
+            return hits.sum();
+        }
+
+        public long getMisses() {
+            return misses.sum();
+        }
+
+        /**
+         * Returns the share of lookups answered from the cache.
+         *
+         * @return the hit rate between 0 and 1, or 0 if the cache has not been used.
+         */
+        public double getHitRate() {
+            long hitCount = getHits();
+            long total = hitCount + getMisses();
+            return total == 0 ? 0 : (double) hitCount / total;
+        }
+
+        private void reset() {
+            hits.reset();
+            misses.reset();
+        }
+    }
+}
@@ -1,6 +1,14 @@
 package som;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
 import som.command.AddCommand;
+import som.command.BetweenCommand;
+import som.command.BulkCommand;
 import som.command.Command;
 import som.command.DeleteCommand;
 import som.command.ExitCommand;
@@ -8,7 +16,13 @@ import som.command.FindCommand;
 import som.command.HelpCommand;
 import som.command.ListCommand;
 import som.command.MarkCommand;
+import som.command.MetricsCommand;
+import som.command.RedoCommand;
+import som.command.RunCommand;
+import som.command.Selection;
 import som.command.SortCommand;
+import som.command.StatsCommand;
+import som.command.UndoCommand;
 import som.command.UnmarkCommand;
 import som.task.Deadline;
 import som.task.Event;
@@ -23,84 +37,299 @@ import som.task.Todo;
  * @author Darien Tan
  */
 public class Parser {
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+    private static final String INVALID_PERIOD_DATE = "Invalid date format! Use: yyyy-MM-dd or yyyy-MM-dd HHmm "
+            + "(e.g., 2025-08-11 or 2025-08-11 1800)";
+    private static final int VERB_TABLE_SIZE = 64; // a power of two, at least twice the number of verbs
+    private static final Verb[] VERBS = buildVerbTable();
+
+    // commands holding no state are shared rather than created for every input
+    private static final Command EXIT_COMMAND = new ExitCommand();
+    private static final Command LIST_COMMAND = new ListCommand();
+    private static final Command HELP_COMMAND = new HelpCommand();
+    private static final Command SORT_COMMAND = new SortCommand();
+    private static final Command METRICS_COMMAND = new MetricsCommand();
+    private static final Command STATS_COMMAND = new StatsCommand();
+    private static final Command UNDO_COMMAND = new UndoCommand();
+    private static final Command REDO_COMMAND = new RedoCommand();
+
     /**
      * Parses a full user command into a Command object.
      * <p>Identifies the command type and returns the corresponding Command
      * instance. Throws SomException if the command is invalid.</p>
+     * <p>The input is scanned once: the verb is looked up in {@link #VERBS} by a hash computed
+     * while finding its end, and the arguments are only copied out of the input by the
+     * commands that keep them, so inputs like {@code list} or {@code mark 42} allocate
+     * little beyond the returned command.</p>
      *
      * @param fullCommand the original user input, must not be null.
      * @return the parsed Command object ready for execution.
      * @throws SomException if the command is invalid, incomplete or malformed.
      */
     public static Command parse(String fullCommand) throws SomException {
-        String[] parts = fullCommand.trim().split(" ", 2);
-        if (parts[0].isEmpty()) {
+        int start = 0;
+        int end = fullCommand.length();
+        while (start < end && fullCommand.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && fullCommand.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
             throw new SomException("The command is empty!");
         }
 
-        String command = parts[0].toLowerCase();
-        String fullDesc = parts.length > 1 ? parts[1] : "";
-
-        switch (command) {
-        case "bye": {
-            return new ExitCommand();
+        int verbEnd = start;
+        int hash = 0;
+        while (verbEnd < end && fullCommand.charAt(verbEnd) != ' ') {
+            hash = 31 * hash + Character.toLowerCase(fullCommand.charAt(verbEnd));
+            verbEnd++;
         }
-        case "list": {
-            return new ListCommand();
+        Verb verb = lookUp(fullCommand, start, verbEnd, hash);
+        if (verb == null) {
+            throw new SomException("I don't know what '" + fullCommand + "' means. Type 'help' to see what I can do.");
         }
-        case "help": {
-            return new HelpCommand();
+        int argStart = Math.min(verbEnd + 1, end); // +1 to skip the space after the verb
+
+        switch (verb) {
+        case BYE: {
+            return EXIT_COMMAND;
         }
-        case "todo": {
-            return new AddCommand(new Todo(fullDesc));
+        case LIST: {
+            return LIST_COMMAND;
         }
-        case "deadline": {
-            return parseDeadline(fullDesc);
-        } case "event": {
-            return parseEvent(fullDesc);
+        case HELP: {
+            return HELP_COMMAND;
         }
-        case "mark": {
-            int index = parseIndex(fullCommand) - 1;
-            return new MarkCommand(index);
+        case TODO: {
+            return new AddCommand(new Todo(fullCommand.substring(argStart, end)));
         }
-        case "unmark": {
-            int index = parseIndex(fullCommand) - 1;
-            return new UnmarkCommand(index);
+        case DEADLINE: {
+            return parseDeadline(fullCommand, argStart, end);
         }
-        case "delete": {
-            int index = parseIndex(fullCommand) - 1;
-            return new DeleteCommand(index);
+        case EVENT: {
+            return parseEvent(fullCommand, argStart, end);
         }
-        case "find": {
+        case MARK:
+        case UNMARK:
+        case DELETE: {
+            return parseTaskCommand(verb, fullCommand, argStart, end);
+        }
+        case FIND: {
+            String fullDesc = fullCommand.substring(argStart, end);
             if (fullDesc.isEmpty()) {
                 throw new SomException("Please enter a keyword to search for.");
             }
+            if (fullDesc.startsWith("-w ")) {
+                String words = fullDesc.substring(3).trim(); // +3 to skip "-w "
+                if (words.isEmpty()) {
+                    throw new SomException("Please enter a word to search for.");
+                }
+                return new FindCommand(words, FindCommand.Mode.WHOLE_WORD);
+            }
             return new FindCommand(fullDesc);
         }
-        case "sort": {
-            return new SortCommand();
+        case FUZZY_FIND: {
+            if (argStart == end) {
+                throw new SomException("Please enter a keyword to search for.");
+            }
+            return new FindCommand(fullCommand.substring(argStart, end), FindCommand.Mode.FUZZY);
+        }
+        case ON: {
+            if (argStart == end) {
+                throw new SomException("Please specify a date. Example: on 2025-08-11");
+            }
+            String date = fullCommand.substring(argStart, end).trim();
+            return parsePeriod(date, date);
+        }
+        case BETWEEN: {
+            int toIndex = indexOfMarker(fullCommand, "/to ", argStart, end);
+            if (toIndex == -1) {
+                throw new SomException("Oops! A period must include '/to' to specify its end. "
+                        + "Example: between 2025-08-11 /to 2025-08-17");
+            }
+            String from = fullCommand.substring(argStart, toIndex).trim();
+            String to = fullCommand.substring(toIndex + 4, end).trim(); // +4 to skip "/to "
+            if (from.isEmpty() || to.isEmpty()) {
+                throw new SomException("Please specify both the start and the end of the period.");
+            }
+            return parsePeriod(from, to);
+        }
+        case SORT: {
+            return SORT_COMMAND;
+        }
+        case METRICS: {
+            return METRICS_COMMAND;
+        }
+        case STATS: {
+            return STATS_COMMAND;
+        }
+        case UNDO: {
+            return UNDO_COMMAND;
+        }
+        case REDO: {
+            return REDO_COMMAND;
+        }
+        case RUN: {
+            String fileName = fullCommand.substring(argStart, end).trim();
+            if (fileName.isEmpty()) {
+                throw new SomException("Please specify a script file. Example: run import.txt");
+            }
+            return new RunCommand(fileName);
         }
         default: {
-            throw new SomException("I don't know what '" + fullCommand + "' means. Type 'help' to see what I can do.");
+            throw new AssertionError(verb);
+        }
+        }
+    }
+
+    /**
+     * Finds the verb spelled by the given part of the input, ignoring case.
+     *
+     * @param input the user input.
+     * @param start the index of the first character of the verb.
+     * @param end the index just after the verb.
+     * @param hash the {@link #hash(CharSequence, int, int)} of the verb.
+     * @return the verb, or null if the input does not start with a known verb.
+     */
+    private static Verb lookUp(String input, int start, int end, int hash) {
+        int length = end - start;
+        for (int slot = hash & (VERBS.length - 1); VERBS[slot] != null; slot = (slot + 1) & (VERBS.length - 1)) {
+            String keyword = VERBS[slot].keyword;
+            if (keyword.length() == length && input.regionMatches(true, start, keyword, 0, length)) {
+                return VERBS[slot];
+            }
         }
+        return null;
+    }
+
+    private static int hash(CharSequence text, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + Character.toLowerCase(text.charAt(i));
         }
+        return hash;
+    }
 
+    private static Verb[] buildVerbTable() {
+        Verb[] table = new Verb[VERB_TABLE_SIZE];
+        for (Verb verb : Verb.values()) {
+            int slot = hash(verb.keyword, 0, verb.keyword.length()) & (table.length - 1);
+            while (table[slot] != null) {
+                slot = (slot + 1) & (table.length - 1);
+            }
+            table[slot] = verb;
+        }
+        return table;
+    }
+
+    /**
+     * Handles the parsing of mark, unmark and delete, for one task or a selection of tasks.
+     * <p>A plain task number is read straight from the input without copying it out.</p>
+     */
+    private static Command parseTaskCommand(Verb verb, String input, int argStart, int end) throws SomException {
+        if (argStart == end) {
+            throw new SomException("Please specify a task number. Example: " + verb.keyword + " 1");
+        }
+        if (input.charAt(argStart) == '#') {
+            return parseIdCommand(verb, input, argStart + 1, end);
+        }
+        int index;
+        if (isDigits(input, argStart, end)) {
+            index = parseNumber(input, argStart, end) - 1;
+        } else {
+            String fullDesc = input.substring(argStart, end);
+            if (Selection.isSelection(fullDesc)) {
+                BulkCommand.Action action = verb == Verb.MARK ? BulkCommand.Action.MARK
+                        : verb == Verb.UNMARK ? BulkCommand.Action.UNMARK
+                        : BulkCommand.Action.DELETE;
+                return new BulkCommand(action, Selection.parse(fullDesc));
+            }
+            index = parseNumber(fullDesc, 0, fullDesc.length()) - 1;
+        }
+
+        switch (verb) {
+        case MARK:
+            return new MarkCommand(index);
+        case UNMARK:
+            return new UnmarkCommand(index);
+        default:
+            return new DeleteCommand(index);
+        }
+    }
+
+    /**
+     * Handles the parsing of mark, unmark and delete for a task named by its ID, e.g. {@code mark #1234}.
+     */
+    private static Command parseIdCommand(Verb verb, String input, int idStart, int end) throws SomException {
+        long id = 0;
+        if (idStart < end && isDigits(input, idStart, end)) {
+            try {
+                id = Long.parseLong(input, idStart, end, 10);
+            } catch (NumberFormatException e) {
+                id = 0;
+            }
+        }
+        if (id <= 0) {
+            throw new SomException("Task ID must be a valid number. Example: " + verb.keyword + " #12");
+        }
+
+        switch (verb) {
+        case MARK:
+            return MarkCommand.byId(id);
+        case UNMARK:
+            return UnmarkCommand.byId(id);
+        default:
+            return DeleteCommand.byId(id);
+        }
+    }
+
+    private static boolean isDigits(String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int parseNumber(String text, int start, int end) throws SomException {
+        try {
+            return Integer.parseInt(text, start, end, 10);
+        } catch (NumberFormatException e) {
+            throw new SomException("Task number must be a valid number.");
+        }
+    }
+
+    /**
+     * Finds a marker such as "/by " in the input up to the given end.
+     * <p>The end excludes trailing spaces, so a marker at the very end of the input, whose
+     * space was one of them, counts as missing, as it did when the input was trimmed first.</p>
+     *
+     * @return the index of the marker, or -1 if it does not occur before the end.
+     */
+    private static int indexOfMarker(String input, String marker, int from, int end) {
+        int index = input.indexOf(marker, from);
+        return index + marker.length() > end ? -1 : index;
     }
 
     /**
      * Handles the parsing of addition of Deadlines events
-     * @param fullDesc the full description of the Deadline
+     * @param input the user input
+     * @param argStart the index where the full description of the Deadline starts
+     * @param end the index where the input ends, after trailing spaces are dropped
      * @return an AddCommand adding a Deadline
      * @throws SomException
      */
-    private static Command parseDeadline(String fullDesc) throws SomException {
-        int byIndex = fullDesc.indexOf("/by ");
+    private static Command parseDeadline(String input, int argStart, int end) throws SomException {
+        int byIndex = indexOfMarker(input, "/by ", argStart, end);
         if (byIndex == -1) {
             throw new SomException("Oops! A deadline task must include a task and '/by'. "
                     + "Example: deadline return book " + "/by 2025-03-10 1300");
         }
-        String desc = fullDesc.substring(0, byIndex).trim();
-        String deadline = fullDesc.substring(byIndex + 4).trim(); // +4 to skip "/by "
+        String desc = input.substring(argStart, byIndex).trim();
+        String deadline = input.substring(byIndex + 4, end).trim(); // +4 to skip "/by "
         if (desc.isEmpty()) {
             throw new SomException("Oops! The description of a deadline cannot be empty.");
         }
@@ -112,13 +341,15 @@ public class Parser {
 
     /**
      * Handles the parsing of addition of Events
-     * @param fullDesc the full description of the Event
+     * @param input the user input
+     * @param argStart the index where the full description of the Event starts
+     * @param end the index where the input ends, after trailing spaces are dropped
      * @return an AddCommand adding an Event
      * @throws SomException
      */
-    private static Command parseEvent(String fullDesc) throws SomException {
-        int fromIndex = fullDesc.indexOf("/from ");
-        int toIndex = fullDesc.indexOf("/to ");
+    private static Command parseEvent(String input, int argStart, int end) throws SomException {
+        int fromIndex = indexOfMarker(input, "/from ", argStart, end);
+        int toIndex = indexOfMarker(input, "/to ", argStart, end);
         if (fromIndex == -1) {
             throw new SomException("Oops! An event must include '/from' to specify start time \n "
                     + "and '/to' to specify end time "
@@ -131,9 +362,9 @@ public class Parser {
             throw new SomException("Oops! '/from' must come before '/to' in the input.");
         }
 
-        String from = fullDesc.substring(fromIndex + 6, toIndex).trim(); // +6 to skip "/from "
-        String to = fullDesc.substring(toIndex + 4).trim(); // +6 to skip "/to "
-        String desc = fullDesc.substring(0, fromIndex).trim();
+        String from = input.substring(fromIndex + 6, toIndex).trim(); // +6 to skip "/from "
+        String to = input.substring(toIndex + 4, end).trim(); // +4 to skip "/to "
+        String desc = input.substring(argStart, fromIndex).trim();
         if (desc.isEmpty()) {
             throw new SomException("Oops! The description of an event cannot be empty.");
         }
@@ -147,26 +378,48 @@ public class Parser {
     }
 
     /**
-     * Extracts the task index from a command string.
-     * <p>Parses the number following the command verb and returns it. Throws
-     * SomException if the index is missing or not a valid number. </p>
+     * Handles the parsing of a period of time for date-range queries.
+     * <p>Each end may be a date-time or just a date; a date alone stands for the start of
+     * that day at the start of the period and the end of that day at its end.</p>
      *
-     * @param input the full user input containing the index.
-     * @return the 1-based task index as an integer.
-     * @throws SomException if index is missing or not a valid number.
+     * @param from the start of the period, e.g. "2025-08-11" or "2025-08-11 0900".
+     * @param to the end of the period, in the same formats.
+     * @return a BetweenCommand for the period.
+     * @throws SomException if either end is malformed or the start is after the end.
      */
-    public static int parseIndex(String input) throws SomException {
-        String[] parts = input.split(" ", 2);
-        if (parts.length < 2) {
-            throw new SomException("Please specify a task number. Example: " + parts[0] + " 1");
+    private static Command parsePeriod(String from, String to) throws SomException {
+        LocalDateTime start = parsePeriodEnd(from, LocalTime.MIN);
+        LocalDateTime end = parsePeriodEnd(to, LocalTime.of(23, 59));
+        if (start.isAfter(end)) {
+            throw new SomException("The start of the period cannot be after its end.");
         }
+        return new BetweenCommand(start, end);
+    }
 
+    private static LocalDateTime parsePeriodEnd(String text, LocalTime timeOfDay) throws SomException {
         try {
-            return Integer.parseInt(parts[1]);
-        } catch (NumberFormatException e) {
-            throw new SomException("Task number must be a valid number.");
+            if (text.indexOf(' ') == -1) {
+                return LocalDate.parse(text).atTime(timeOfDay);
+            }
+            return LocalDateTime.parse(text, DATE_TIME_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new SomException(INVALID_PERIOD_DATE);
         }
     }
 
+    /**
+     * The command words, each with the text that invokes it.
+     */
+    private enum Verb {
+        BYE("bye"), LIST("list"), HELP("help"), TODO("todo"), DEADLINE("deadline"), EVENT("event"),
+        MARK("mark"), UNMARK("unmark"), DELETE("delete"), FIND("find"), FUZZY_FIND("find~"), ON("on"),
+        BETWEEN("between"), SORT("sort"), RUN("run"), METRICS("metrics"), STATS("stats"),
+        UNDO("undo"), REDO("redo");
+
+        private final String keyword;
 
+        Verb(String keyword) {
+            this.keyword = keyword;
+        }
+    }
 }
@@ -1,6 +1,14 @@
 package som;
 
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
 import som.command.Command;
+import som.task.Task;
+import som.task.TaskClock;
 
 /**
  * The main chatbot class that handles user interaction, task management, and persistence.
@@ -9,8 +17,11 @@ import som.command.Command;
  * @author Darien Tan
  */
 public class Som {
+    private static final long MILLIS_PER_MINUTE = 60_000;
+
     private Ui ui;
     private TaskList tasks;
+    private ScheduledExecutorService reminderTicker;
 
     /**
      * Creates a new Som Chatbot instance.
@@ -19,12 +30,26 @@ public class Som {
         this.ui = new Ui();
         // Load tasks on startup
         try {
-            tasks = new TaskList(Storage.load());
+            tasks = new TaskList(Storage.load(), Storage.getNextId());
             System.out.println("Loaded " + tasks.size() + " tasks.");
         } catch (SomException e) {
             ui.showLoadingError(e.getMessage());
             tasks = new TaskList();
         }
+        // In auto-sort mode the list must start out sorted, and the new order must be saved
+        // so that later journal records refer to the same positions after a restart
+        try {
+            if (Config.isAutoSortEnabled() && tasks.sortTasks()) {
+                Storage.append(Journal.sort(), tasks);
+            }
+            // Tasks saved before tasks had IDs were just given some, which must be kept too
+            if (tasks.hasNewIds()) {
+                Storage.save(tasks);
+            }
+        } catch (SomException e) {
+            ui.showLoadingError(e.getMessage());
+        }
+        tasks.clearHistory(); // the startup sort is not the user's to undo
     }
 
     /**
@@ -45,4 +70,48 @@ public class Som {
             return ui.showError("Something went wrong: " + e.getMessage());
         }
     }
+
+    /**
+     * Starts reminding the user of deadlines and events shortly before they are due.
+     * <p>A single background thread checks for due reminders once now and then at the start
+     * of every minute, and passes each batch to the listener as one message. The listener is
+     * called on that thread. Does nothing if reminders are already running.</p>
+     *
+     * @param listener receives the reminder messages.
+     */
+    public synchronized void startReminders(Consumer<String> listener) {
+        if (reminderTicker != null) {
+            return;
+        }
+        reminderTicker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "som-reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runnable tick = () -> remind(listener);
+        reminderTicker.execute(tick);
+        long untilNextMinute = MILLIS_PER_MINUTE - System.currentTimeMillis() % MILLIS_PER_MINUTE;
+        reminderTicker.scheduleAtFixedRate(tick, untilNextMinute, MILLIS_PER_MINUTE, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the reminders started by {@link #startReminders(Consumer)}.
+     */
+    public synchronized void stopReminders() {
+        if (reminderTicker != null) {
+            reminderTicker.shutdownNow();
+            reminderTicker = null;
+        }
+    }
+
+    private void remind(Consumer<String> listener) {
+        try {
+            List<Task> due = tasks.takeDueReminders(TaskClock.now());
+            if (!due.isEmpty()) {
+                listener.accept(ui.showReminders(due));
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Could not show reminders: " + e.getMessage()); // keep the ticker running
+        }
+    }
 }
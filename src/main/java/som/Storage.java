@@ -1,15 +1,34 @@
 package som;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
 
+import som.task.DateTimes;
 import som.task.Deadline;
 import som.task.Event;
 import som.task.Task;
@@ -19,19 +38,71 @@ import som.task.Todo;
  * Manages persistent storage of tasks to and from a file on disk.
  * <p>This class handles saving the current task list to a file and loading it back
  * when the application starts.</p>
- * <p>The data file is stored at ./data/som.txt (relative to the project root).
+ * <p>The data file is stored at ./data/som.txt (relative to the project root), one task
+ * per line prefixed with its ID, see {@link #encodeLine(Task)}. A first line like "N | 42"
+ * records the next ID to hand out, so the IDs of deleted tasks are not given out again.
  * Corrupted lines in the file are skipped with a warning message.
  * All file operations use OS-independent paths via java.nio.file.Paths.</p>
+ * <p>Mutations are appended to a {@link Journal} at ./data/som.journal rather than
+ * rewriting the data file each time. The journal is folded into the data file once it
+ * holds {@link Config#getJournalCompactThreshold()} records.</p>
+ * <p>With {@link Config.StorageFormat#BINARY} the data file is ./data/som.bin instead, see
+ * {@link BinaryTaskFile}. An existing som.txt is migrated to it on the first load.</p>
+ * <p>Between {@link #beginBatch()} and {@link #endBatch(TaskList)} mutations are not recorded
+ * one by one; the whole list is saved once when the batch ends.</p>
  *
  * @author Darien Tan
  */
 public class Storage {
-    private static final String APP_DIR = "data";
+    static final String ID_PREFIX = "#";
+    static final String ID_SEPARATOR = " | ";
+    static final String NEXT_ID_PREFIX = "N" + ID_SEPARATOR;
+    static final int MAX_ID_DIGITS = 18; // any 18-digit number fits in a long
     private static final String FILE_NAME = "som.txt";
-    private static final Path FILE_PATH = Paths.get(APP_DIR, FILE_NAME);
+    private static final String BINARY_FILE_NAME = "som.bin";
+    private static final String JOURNAL_NAME = "som.journal";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final long MAP_THRESHOLD = 1 << 20; // files from 1 MB are memory-mapped
+
+    private static final StorageWriter writer = new StorageWriter(Config.getDurability(),
+            Config.getFlushCount(), Config.getFlushMillis());
+
+    private static Config.StorageFormat format;
+    private static Path filePath;
+    private static Path textPath;
+    private static Path journalPath;
+    private static int journalLength; // records appended since the data file was last written
+    private static long nextId; // the next ID to hand out as of the last load, 0 if not recorded
+    private static long fileLength = -1; // length and checksum of the data file, -1 if unknown
+    private static long fileChecksum;
+    private static boolean isBatching; // mutations are saved once at the end of a batch
+    private static boolean hasBatchChanges;
+
+    static {
+        setDataDirectory(Config.getDataDirectory());
+    }
 
     /**
-     * Loads the list of tasks from the data file.
+     * Points storage at another data directory, e.g. a temporary one in tests.
+     *
+     * @param directory the directory holding the data file and its journal.
+     */
+    static void setDataDirectory(Path directory) {
+        try {
+            flush();
+        } catch (SomException e) {
+            System.out.println(e.getMessage());
+        }
+        format = Config.getStorageFormat();
+        textPath = directory.resolve(FILE_NAME);
+        filePath = format == Config.StorageFormat.BINARY ? directory.resolve(BINARY_FILE_NAME) : textPath;
+        journalPath = directory.resolve(JOURNAL_NAME);
+        journalLength = 0;
+        fileLength = -1;
+    }
+
+    /**
+     * Loads the list of tasks from the data file and replays the journal on top of it.
      * <p>If the file does not exist, throws SomException with "File not found!".
      * Corrupted lines are skipped, and a warning is printed to the console.
      * Requires all tasks to be of a fixed pre-determined input.</p>
@@ -40,8 +111,10 @@ public class Storage {
      * @throws SomException if the file exists but cannot be found during scanning.
      */
     public static List<Task> load() throws SomException {
-        List<Task> tasks = new ArrayList<>();
-        File file = FILE_PATH.toFile();
+        flush(); // read back everything saved so far
+        nextId = 0;
+        List<Task> tasks = Config.isColumnarEnabled() ? new TaskColumns() : new ArrayList<>();
+        File file = filePath.toFile();
         File parentDir = file.getParentFile();
 
         // Create directory if it doesn't exist
@@ -51,26 +124,144 @@ public class Storage {
             }
         }
 
+        if (!file.exists() && format == Config.StorageFormat.BINARY && Files.exists(textPath)) {
+            return migrate();
+        }
+
         // If file doesn't exist, create it
         if (!file.exists()) {
             Storage.createFile(file);
+            replayJournal(tasks, filePath);
             return tasks;
         }
-        try {
-            Scanner sc = new Scanner(file);
-            while (sc.hasNext()) {
-                String line = "";
+        readTasks(filePath, tasks);
+        replayJournal(tasks, filePath);
+        return tasks;
+    }
+
+    /**
+     * Converts som.txt and its journal into the binary data file.
+     * <p>som.txt is left in place as a backup; it is no longer read once som.bin exists.</p>
+     *
+     * @return the migrated tasks.
+     * @throws SomException if som.txt cannot be read or som.bin cannot be written.
+     */
+    private static List<Task> migrate() throws SomException {
+        List<Task> tasks = new ArrayList<>();
+        readTasks(textPath, tasks);
+        replayJournal(tasks, textPath);
+        save(tasks, nextId);
+        flush();
+        System.out.println("Migrated " + tasks.size() + " tasks from " + textPath + " to " + filePath);
+        return tasks;
+    }
+
+    /**
+     * Reads the tasks in a data file with a {@link TaskFileReader} or {@link BinaryTaskFile}.
+     * <p>Large files are memory-mapped rather than copied onto the heap. Small files are
+     * read into memory instead, since a mapping would keep the file locked on some
+     * platforms until it is garbage collected. The load throughput is printed to the console.</p>
+     *
+     * @param path the data file, read as binary if it is som.bin.
+     * @param tasks the list the loaded tasks are added to.
+     * @throws SomException if the file cannot be read or holds invalid task data.
+     */
+    private static void readTasks(Path path, List<Task> tasks) throws SomException {
+        long startTime = System.nanoTime();
+        long size;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new SomException("Data file is too large to load: " + size + " bytes");
+            }
+            ByteBuffer buffer = size < MAP_THRESHOLD
+                    ? ByteBuffer.wrap(Files.readAllBytes(path))
+                    : channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (!path.equals(textPath)) {
+                if (size > 0) {
+                    nextId = BinaryTaskFile.read(buffer, tasks);
+                }
+            } else {
+                nextId = TaskFileReader.readAll(buffer, Charset.defaultCharset(), tasks);
+            }
+        } catch (NoSuchFileException e) {
+            throw new SomException("File not found!");
+        } catch (IOException e) {
+            throw new SomException("Could not read data file: " + e.getMessage());
+        }
+
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        double megabytes = size / (1024.0 * 1024.0);
+        System.out.println(String.format("Read %.1f MB in %.0f ms (%.1f MB/s).",
+                megabytes, seconds * 1000, seconds > 0 ? megabytes / seconds : 0));
+    }
+
+    /**
+     * Replays the journal, if any, on top of the tasks read from the data file.
+     * <p>A journal written against a different version of the data file has already been
+     * folded into it and is discarded. Corrupted records are skipped like corrupted lines.</p>
+     *
+     * @param tasks the tasks read from the data file, updated in place.
+     * @param base the data file the tasks were read from.
+     * @throws SomException if the journal cannot be read.
+     */
+    private static void replayJournal(List<Task> tasks, Path base) throws SomException {
+        journalLength = 0;
+        File journal = journalPath.toFile();
+        if (!journal.exists()) {
+            return;
+        }
+        try (Scanner sc = new Scanner(journal)) {
+            updateChecksum(base);
+            if (!sc.hasNextLine() || !Journal.isHeaderOf(sc.nextLine(), fileLength, fileChecksum)) {
+                System.out.println("Discarding stale journal: " + journalPath);
+                Files.delete(journalPath);
+                return;
+            }
+            while (sc.hasNextLine()) {
+                String line = sc.nextLine();
                 try {
-                    line = sc.nextLine().trim();
-                    tasks.add(parseTask(line));
+                    long addedId = Journal.replay(line, tasks);
+                    if (addedId > 0) {
+                        nextId = Math.max(nextId, addedId + 1);
+                    }
+                    journalLength++;
                 } catch (IllegalArgumentException e) {
-                    System.out.println("Skipping corrupt task: " + line + "\nError: " + e.getMessage());
+                    System.out.println("Skipping corrupt journal record: " + line + "\nError: " + e.getMessage());
                 }
             }
-        } catch (FileNotFoundException e) {
-            throw new SomException("File not found!");
+        } catch (IOException e) {
+            throw new SomException("Could not read journal: " + e.getMessage());
         }
-        return tasks;
+    }
+
+    /**
+     * Returns the next ID to hand out as recorded by the last {@link #load()}, see {@link TaskList#getNextId()}.
+     * <p>It is past every ID given out before, including those of tasks deleted since.</p>
+     *
+     * @return the next ID, or 0 if the data file was saved without one.
+     */
+    public static long getNextId() {
+        return nextId;
+    }
+
+    /**
+     * Recomputes the length and CRC32 of a data file.
+     *
+     * @param path the data file to check.
+     * @throws IOException if the data file cannot be read.
+     */
+    private static void updateChecksum(Path path) throws IOException {
+        CRC32 crc = new CRC32();
+        if (!Files.exists(path)) {
+            fileLength = 0;
+            fileChecksum = crc.getValue();
+            return;
+        }
+        try (InputStream in = new CheckedInputStream(Files.newInputStream(path), crc)) {
+            fileLength = in.transferTo(OutputStream.nullOutputStream());
+        }
+        fileChecksum = crc.getValue();
     }
 
     /**
@@ -86,21 +277,75 @@ public class Storage {
             if (!file.createNewFile()) {
                 throw new IOException("Failed to create file");
             }
-            System.out.println("Created new data file: " + FILE_PATH);
+            System.out.println("Created new data file: " + filePath);
         } catch (IOException e) {
             throw new SomException("Could not create data file: " + e.getMessage());
         }
     }
+    /**
+     * Returns the line a task is saved as: its {@link Task#encode()} form prefixed with its ID.
+     * <p>Example: #12 | T | 1 | read book. A task without an ID is saved without the prefix.</p>
+     *
+     * @param task the task to save.
+     * @return the line to write to the data file or journal.
+     */
+    static String encodeLine(Task task) {
+        return task.getId() > 0 ? ID_PREFIX + task.getId() + ID_SEPARATOR + task.encode() : task.encode();
+    }
+
     /**
      * Parses a single line into a Task.
-     * <p>Format: TYPE | DONE | ARGS...
-     * Example: T | 1 | read book</p>
+     * <p>Format: [#ID | ]TYPE | DONE | ARGS...
+     * Example: #12 | T | 1 | read book. Lines saved before tasks had IDs have no prefix,
+     * and the task is given an ID when it joins a {@link TaskList}.</p>
      *
      * @param line the raw line from the file to parse.
      * @return the parsed Task object.
      * @throws SomException if the line is malformed or contains invalid data.
      */
-    private static Task parseTask(String line) throws SomException {
+    static Task parseTask(String line) throws SomException {
+        long id = 0;
+        if (line.startsWith(ID_PREFIX)) {
+            int separator = line.indexOf(ID_SEPARATOR);
+            if (separator == -1) {
+                throw new IllegalArgumentException("Too few parts");
+            }
+            id = parseId(line, ID_PREFIX.length(), separator);
+            line = line.substring(separator + ID_SEPARATOR.length());
+        }
+        Task task = parseUnnumberedTask(line);
+        task.setId(id);
+        return task;
+    }
+
+    /**
+     * Reads a task ID written by {@link #encodeLine(Task)}.
+     *
+     * @param text the text holding the ID.
+     * @param start the index of the first digit.
+     * @param end the index after the last digit.
+     * @return the ID, greater than 0.
+     * @throws IllegalArgumentException if the text is not a valid ID.
+     */
+    static long parseId(CharSequence text, int start, int end) {
+        if (start == end || end - start > MAX_ID_DIGITS) {
+            throw new IllegalArgumentException("Invalid task ID");
+        }
+        long id = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Invalid task ID");
+            }
+            id = id * 10 + (c - '0');
+        }
+        if (id <= 0) {
+            throw new IllegalArgumentException("Invalid task ID: " + id);
+        }
+        return id;
+    }
+
+    private static Task parseUnnumberedTask(String line) throws SomException {
         String[] parts = line.split(" \\| ", -1); // Keep trailing empty strings
         if (parts.length < 3) {
             throw new IllegalArgumentException("Too few parts");
@@ -150,7 +395,7 @@ public class Storage {
         if (parts.length < 4 || parts[3].isEmpty()) {
             throw new IllegalArgumentException("Missing /by");
         }
-        Task d = new Deadline(parts[2], parts[3]);
+        Task d = new Deadline(parts[2], parseStoredTime(parts[3]));
         if (isDone) {
             d.markAsDone();
         }
@@ -173,31 +418,224 @@ public class Storage {
         if (parts.length < 5 || parts[4].isEmpty()) {
             throw new IllegalArgumentException("Missing /to");
         }
-        Event e = new Event(parts[2], parts[3], parts[4]);
+        Event e = new Event(parts[2], parseStoredTime(parts[3]), parseStoredTime(parts[4]));
         if (isDone) {
             e.markAsDone();
         }
         return e;
     }
 
+    /**
+     * Parses a date-time read back from storage.
+     * <p>Stored tasks were checked when they were added, so they are not rejected for being
+     * in the past now; only a malformed date marks the line as corrupt.</p>
+     *
+     * @param text the stored date-time, e.g. "2019-12-02 1800".
+     * @return the parsed date-time.
+     * @throws IllegalArgumentException if the text is not a valid date-time.
+     */
+    static LocalDateTime parseStoredTime(String text) {
+        try {
+            return DateTimes.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date format! Use: yyyy-MM-dd HHmm (e.g., 2019-12-02 1800)");
+        }
+    }
+
+    /**
+     * Records a single mutation of the task list.
+     * <p>The record is appended to the journal, so the cost does not depend on the size
+     * of the list. Once the journal reaches the compaction threshold, or if journaling is
+     * disabled, the whole list is saved instead, which also folds in this mutation.</p>
+     *
+     * @param record the journal record describing the mutation, see {@link Journal}.
+     * @param tasks the task list after the mutation has been applied.
+     * @throws SomException if an I/O error occurs during writing.
+     */
+    public static void append(String record, TaskList tasks) throws SomException {
+        if (isBatching) {
+            hasBatchChanges = true;
+            return;
+        }
+        if (!Config.isJournalEnabled() || journalLength >= Config.getJournalCompactThreshold()) {
+            save(tasks);
+            return;
+        }
+        writer.submit(record);
+        journalLength++;
+    }
+
+    /**
+     * Records several mutations of the task list made by one command, e.g. an undo.
+     * <p>The records are appended to the journal together. The whole list is saved instead
+     * if they would take the journal past the compaction threshold, if journaling is
+     * disabled, or if a record is null, which stands for a mutation no record can describe,
+     * such as putting the tasks back in their order from before a sort.</p>
+     *
+     * @param records the journal records describing the mutations, in the order they were applied.
+     * @param tasks the task list after the mutations have been applied.
+     * @throws SomException if an I/O error occurs during writing.
+     */
+    public static void appendAll(List<String> records, TaskList tasks) throws SomException {
+        if (isBatching) {
+            hasBatchChanges = true;
+            return;
+        }
+        if (!Config.isJournalEnabled() || records.contains(null)
+                || journalLength + records.size() > Config.getJournalCompactThreshold()) {
+            save(tasks);
+            return;
+        }
+        for (String record : records) {
+            writer.submit(record);
+        }
+        journalLength += records.size();
+    }
+
+    /**
+     * Starts a batch of mutations, which are saved together by {@link #endBatch(TaskList)}.
+     */
+    public static void beginBatch() {
+        isBatching = true;
+        hasBatchChanges = false;
+    }
+
+    /**
+     * Ends the current batch, saving the whole list once if any mutation was made in it.
+     *
+     * @param tasks the task list after every mutation of the batch.
+     * @throws SomException if an I/O error occurs during writing.
+     */
+    public static void endBatch(TaskList tasks) throws SomException {
+        isBatching = false;
+        if (hasBatchChanges) {
+            hasBatchChanges = false;
+            save(tasks);
+        }
+    }
+
     /**
      * Saves the current list of tasks to the data file.
      * <p>The file is overwritten completely to reflect the current state of the task list.
-     * This ensures that deleted or updated tasks are not left in stale form.</p>
+     * This ensures that deleted or updated tasks are not left in stale form. Depending on
+     * {@link Config#getDurability()} the write may complete in the background; call
+     * {@link #flush()} to wait for it.</p>
+     *
+     * @param tasks the task list to save, along with its next ID.
+     * @throws SomException if an I/O error occurs during writing.
+     */
+    public static void save(TaskList tasks) throws SomException {
+        save(tasks.getAllTasks(), tasks.getNextId());
+    }
+
+    /**
+     * Saves the given tasks to the data file without a next ID, so the IDs handed out
+     * after the next load continue from the highest saved one.
      *
      * @param tasks the list of tasks to save.
      * @throws SomException if an I/O error occurs during writing.
      */
     public static void save(List<Task> tasks) throws SomException {
-        try {
-            FileWriter fw = new FileWriter(FILE_PATH.toFile());
-            for (Task task : tasks) {
-                fw.write(task.encode());
-                fw.write(System.lineSeparator());
+        save(tasks, 0);
+    }
+
+    /**
+     * Saves the given tasks to the data file along with the next ID to hand out.
+     *
+     * @param tasks the list of tasks to save.
+     * @param nextId the next ID to hand out, or 0 if unknown.
+     * @throws SomException if an I/O error occurs during writing.
+     */
+    public static void save(List<Task> tasks, long nextId) throws SomException {
+        writer.submitSnapshot(tasks, nextId);
+        journalLength = 0;
+    }
+
+    /**
+     * Blocks until every change saved so far has been written to disk.
+     * <p>Must be called before the application exits so no pending change is lost.</p>
+     *
+     * @throws SomException if an I/O error occurred during writing.
+     */
+    public static void flush() throws SomException {
+        writer.flush();
+    }
+
+    /**
+     * Appends records to the journal, starting it with a header if it does not exist yet.
+     *
+     * @param records the journal records in the order they were made.
+     * @param isForced whether to force the records to disk before returning.
+     * @throws IOException if an I/O error occurs during writing.
+     */
+    static void writeJournal(List<String> records, boolean isForced) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        if (!Files.exists(journalPath)) {
+            if (fileLength < 0) {
+                updateChecksum(filePath);
+            }
+            sb.append(Journal.header(fileLength, fileChecksum)).append(System.lineSeparator());
+        }
+        for (String record : records) {
+            sb.append(record).append(System.lineSeparator());
+        }
+
+        try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer bytes = Charset.defaultCharset().encode(CharBuffer.wrap(sb));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            if (isForced) {
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * Overwrites the data file with the given tasks and deletes the journal it supersedes.
+     * <p>The new file is written beside the old one and moved into place, so a crash
+     * midway leaves either the old or the new data file intact.</p>
+     *
+     * @param tasks the list of tasks to save.
+     * @param nextId the next ID to hand out, or 0 if unknown.
+     * @param isForced whether to force the file to disk before moving it into place.
+     * @throws IOException if an I/O error occurs during writing.
+     */
+    static void writeSnapshot(List<Task> tasks, long nextId, boolean isForced) throws IOException {
+        Path temp = filePath.resolveSibling(FILE_NAME + TEMP_SUFFIX);
+        CRC32 crc = new CRC32();
+        try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+            OutputStream out = new BufferedOutputStream(new CheckedOutputStream(file, crc));
+            if (format == Config.StorageFormat.BINARY) {
+                DataOutputStream data = new DataOutputStream(out);
+                BinaryTaskFile.write(data, tasks, nextId);
+                data.flush();
+            } else {
+                Writer w = new BufferedWriter(new OutputStreamWriter(out));
+                if (nextId > 0) {
+                    w.write(NEXT_ID_PREFIX);
+                    w.write(Long.toString(nextId));
+                    w.write(System.lineSeparator());
+                }
+                for (Task task : tasks) {
+                    if (task.getId() > 0) {
+                        w.write(ID_PREFIX);
+                        w.write(Long.toString(task.getId()));
+                        w.write(ID_SEPARATOR);
+                    }
+                    w.write(task.encode());
+                    w.write(System.lineSeparator());
+                }
+                w.flush();
+            }
+            if (isForced) {
+                file.getFD().sync();
             }
-            fw.close();
-        } catch (IOException e) {
-            throw new SomException("Error saving task: " + e.getMessage());
         }
+        Files.move(temp, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        fileLength = Files.size(filePath);
+        fileChecksum = crc.getValue();
+        Files.deleteIfExists(journalPath);
     }
 }
@@ -0,0 +1,204 @@
+package som;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import som.Config.Durability;
+import som.task.Task;
+
+/**
+ * Writes journal records and data file snapshots to disk on behalf of {@link Storage}.
+ * <p>With {@link Durability#FSYNC} every write happens on the caller's thread and is
+ * forced to disk before returning. Otherwise writes are queued and a background thread
+ * writes them in batches once {@link Config#getFlushCount()} writes are pending or the
+ * oldest has waited {@link Config#getFlushMillis()} milliseconds. A batch is written in
+ * submission order with a single append to the journal; a snapshot in the batch
+ * supersedes every record queued before it.</p>
+ * <p>An I/O error on the background thread cannot be thrown to the command that caused
+ * it, so it is reported by the next call to {@link #submit} or {@link #flush}.</p>
+ *
+ * @author Darien Tan
+ */
+class StorageWriter {
+    private final Durability durability;
+    private final int flushCount;
+    private final long flushMillis;
+
+    private final List<Write> pending = new ArrayList<>();
+    private long oldestPendingTime;
+    private long submitted;
+    private long written;
+    private int flushRequests;
+    private IOException failure;
+    private Thread thread;
+
+    /**
+     * Constructs a writer with the given flush policy.
+     *
+     * @param durability when writes reach the disk.
+     * @param flushCount the number of pending writes that triggers a background write.
+     * @param flushMillis the longest time a write may wait before a background write.
+     */
+    StorageWriter(Durability durability, int flushCount, long flushMillis) {
+        this.durability = durability;
+        this.flushCount = flushCount;
+        this.flushMillis = flushMillis;
+    }
+
+    /**
+     * Queues a journal record, or writes it straight away in fsync mode.
+     *
+     * @param record the journal record to append.
+     * @throws SomException if this or an earlier write failed.
+     */
+    void submit(String record) throws SomException {
+        submit(new Write(record, null, 0));
+    }
+
+    /**
+     * Queues a snapshot of the whole task list, or writes it straight away in fsync mode.
+     *
+     * @param tasks the tasks to save; the list must not be modified afterwards.
+     * @param nextId the next ID to hand out, or 0 if unknown.
+     * @throws SomException if this or an earlier write failed.
+     */
+    void submitSnapshot(List<Task> tasks, long nextId) throws SomException {
+        submit(new Write(null, tasks, nextId));
+    }
+
+    private synchronized void submit(Write write) throws SomException {
+        reportFailure();
+        if (durability == Durability.FSYNC) {
+            try {
+                writeBatch(List.of(write));
+            } catch (IOException e) {
+                throw new SomException("Error saving task: " + e.getMessage());
+            }
+            return;
+        }
+
+        if (pending.isEmpty()) {
+            oldestPendingTime = System.currentTimeMillis();
+        }
+        pending.add(write);
+        submitted++;
+        startThread();
+        if (pending.size() >= flushCount) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Blocks until every write submitted so far is on disk.
+     *
+     * @throws SomException if a background write failed.
+     */
+    synchronized void flush() throws SomException {
+        flushRequests++;
+        notifyAll();
+        try {
+            while (written < submitted) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SomException("Interrupted while saving tasks.");
+        } finally {
+            flushRequests--;
+        }
+        reportFailure();
+    }
+
+    private void reportFailure() throws SomException {
+        if (failure != null) {
+            IOException e = failure;
+            failure = null;
+            throw new SomException("Error saving task: " + e.getMessage());
+        }
+    }
+
+    private void startThread() {
+        if (thread == null) {
+            thread = new Thread(this::run, "som-storage-writer");
+            thread.setDaemon(true); // a final flush() guards against losing writes on exit
+            thread.start();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            List<Write> batch;
+            try {
+                batch = takeBatch();
+            } catch (InterruptedException e) {
+                return;
+            }
+            IOException error = null;
+            try {
+                writeBatch(batch);
+            } catch (IOException e) {
+                error = e;
+            }
+            synchronized (this) {
+                if (error != null) {
+                    failure = error;
+                }
+                written += batch.size();
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits until the flush policy calls for a write, then removes and returns all pending writes.
+     */
+    private synchronized List<Write> takeBatch() throws InterruptedException {
+        while (pending.isEmpty()) {
+            wait();
+        }
+        long remaining = oldestPendingTime + flushMillis - System.currentTimeMillis();
+        while (remaining > 0 && pending.size() < flushCount && flushRequests == 0) {
+            wait(remaining);
+            remaining = oldestPendingTime + flushMillis - System.currentTimeMillis();
+        }
+        List<Write> batch = new ArrayList<>(pending);
+        pending.clear();
+        return batch;
+    }
+
+    private void writeBatch(List<Write> batch) throws IOException {
+        boolean isForced = durability != Durability.ASYNC;
+        int start = 0;
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            if (batch.get(i).snapshot != null) {
+                Storage.writeSnapshot(batch.get(i).snapshot, batch.get(i).nextId, isForced);
+                start = i + 1;
+                break;
+            }
+        }
+
+        List<String> records = new ArrayList<>(batch.size() - start);
+        for (Write write : batch.subList(start, batch.size())) {
+            records.add(write.record);
+        }
+        if (!records.isEmpty()) {
+            Storage.writeJournal(records, isForced);
+        }
+    }
+
+    /**
+     * A queued write: either a single journal record or a snapshot of the whole list.
+     */
+    private static class Write {
+        private final String record;
+        private final List<Task> snapshot;
+        private final long nextId; // saved with the snapshot
+
+        Write(String record, List<Task> snapshot, long nextId) {
+            this.record = record;
+            this.snapshot = snapshot;
+            this.nextId = nextId;
+        }
+    }
+}
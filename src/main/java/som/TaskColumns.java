@@ -0,0 +1,446 @@
+package som;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import som.task.DateTimes;
+import som.task.Deadline;
+import som.task.Event;
+import som.task.Task;
+import som.task.Todo;
+
+/**
+ * Stores a list of tasks column by column instead of as one object graph per task.
+ * <p>Each task is a row across primitive columns: its type in a byte array, its done flag
+ * in a {@link BitSet}, its start and end times as epoch minutes (see {@link DateTimes}) in
+ * two long arrays, its ID in a third, and its description as UTF-8 bytes in one shared byte
+ * array. A task costs about 33 bytes plus its text, instead of the task, String and LocalDateTime objects an
+ * {@code ArrayList<Task>} keeps alive.</p>
+ * <p>{@link #get(int)} builds a new Task from its row every time, so changing that task does
+ * not change the list: write changes back with {@link #set(int, Task)} or
+ * {@link #setDone(int, boolean)}. For the same reason tasks cannot be told apart by identity,
+ * so the {@link som.index.TaskIndex} structures are not used with this store.</p>
+ * <p>Descriptions of removed tasks stay in the byte array until they make up more than half
+ * of it, when it is compacted.</p>
+ *
+ * @author Darien Tan
+ */
+public class TaskColumns extends AbstractList<Task> implements RandomAccess {
+    private static final byte TODO = 0;
+    private static final byte DEADLINE = 1;
+    private static final byte EVENT = 2;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MIN_COMPACT_GARBAGE = 1 << 16;
+
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private final BitSet done = new BitSet();
+    private long[] starts = new long[INITIAL_CAPACITY];
+    private long[] ends = new long[INITIAL_CAPACITY];
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] textOffsets = new int[INITIAL_CAPACITY];
+    private int[] textLengths = new int[INITIAL_CAPACITY];
+    private byte[] text = new byte[INITIAL_CAPACITY * 16];
+    private int textLength;
+    private int garbage; // bytes of text no longer referenced by any row
+    private int size;
+
+    /**
+     * Constructs an empty TaskColumns.
+     */
+    public TaskColumns() {
+    }
+
+    /**
+     * Constructs a TaskColumns holding the given tasks, in order.
+     *
+     * @param tasks the tasks to store.
+     */
+    public TaskColumns(Collection<? extends Task> tasks) {
+        ensureCapacity(tasks.size());
+        addAll(tasks);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Builds the task stored at the given position.
+     *
+     * @param index the 0-based position of the task.
+     * @return a new Task equal to the stored one.
+     */
+    @Override
+    public Task get(int index) {
+        Objects.checkIndex(index, size);
+        String description = getDescription(index);
+        Task task = switch (types[index]) {
+        case DEADLINE:
+            yield new Deadline(description, DateTimes.fromEpochMinute(starts[index]));
+        case EVENT:
+            yield new Event(description, DateTimes.fromEpochMinute(starts[index]),
+                    DateTimes.fromEpochMinute(ends[index]));
+        default:
+            yield new Todo(description);
+        };
+        if (done.get(index)) {
+            task.markAsDone();
+        }
+        task.setId(ids[index]);
+        return task;
+    }
+
+    /**
+     * Returns the description of the task at the given position without building the task.
+     *
+     * @param index the 0-based position of the task.
+     * @return the task description.
+     */
+    public String getDescription(int index) {
+        Objects.checkIndex(index, size);
+        return new String(text, textOffsets[index], textLengths[index], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the ID of the task at the given position without building the task.
+     *
+     * @param index the 0-based position of the task.
+     * @return the task ID, see {@link Task#getId()}.
+     */
+    public long getId(int index) {
+        Objects.checkIndex(index, size);
+        return ids[index];
+    }
+
+    /**
+     * Gives the task at the given position a new ID.
+     *
+     * @param index the 0-based position of the task.
+     * @param id the new task ID.
+     */
+    public void setId(int index, long id) {
+        Objects.checkIndex(index, size);
+        ids[index] = id;
+    }
+
+    /**
+     * Returns whether the task at the given position is done, without building the task.
+     *
+     * @param index the 0-based position of the task.
+     * @return true if the task is done.
+     */
+    public boolean isDone(int index) {
+        Objects.checkIndex(index, size);
+        return done.get(index);
+    }
+
+    /**
+     * Marks the task at the given position as done or not done.
+     *
+     * @param index the 0-based position of the task.
+     * @param isDone true to mark the task as done, false to mark it as not done.
+     */
+    public void setDone(int index, boolean isDone) {
+        Objects.checkIndex(index, size);
+        done.set(index, isDone);
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Task previous = get(index);
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        int offset = textOffsets[index];
+        if (!Arrays.equals(text, offset, offset + textLengths[index], description, 0, description.length)) {
+            garbage += textLengths[index];
+            appendText(index, description);
+        }
+        writeRow(index, task);
+        compactTextIfSparse();
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        Objects.checkIndex(index, size + 1);
+        ensureCapacity(size + 1);
+        int moved = size - index;
+        System.arraycopy(types, index, types, index + 1, moved);
+        System.arraycopy(starts, index, starts, index + 1, moved);
+        System.arraycopy(ends, index, ends, index + 1, moved);
+        System.arraycopy(ids, index, ids, index + 1, moved);
+        System.arraycopy(textOffsets, index, textOffsets, index + 1, moved);
+        System.arraycopy(textLengths, index, textLengths, index + 1, moved);
+        for (int i = size; i > index; i--) {
+            done.set(i, done.get(i - 1));
+        }
+        size++;
+        appendText(index, task.getDescription().getBytes(StandardCharsets.UTF_8));
+        writeRow(index, task);
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = get(index);
+        removeRange(index, index + 1);
+        return removed;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            garbage += textLengths[i];
+        }
+        int count = toIndex - fromIndex;
+        int moved = size - toIndex;
+        System.arraycopy(types, toIndex, types, fromIndex, moved);
+        System.arraycopy(starts, toIndex, starts, fromIndex, moved);
+        System.arraycopy(ends, toIndex, ends, fromIndex, moved);
+        System.arraycopy(ids, toIndex, ids, fromIndex, moved);
+        System.arraycopy(textOffsets, toIndex, textOffsets, fromIndex, moved);
+        System.arraycopy(textLengths, toIndex, textLengths, fromIndex, moved);
+        for (int i = fromIndex; i < size - count; i++) {
+            done.set(i, done.get(i + count));
+        }
+        done.clear(size - count, size);
+        size -= count;
+        modCount++;
+        compactTextIfSparse();
+    }
+
+    /**
+     * Removes the tasks at the given positions by moving every kept row forward once.
+     *
+     * @param positions the distinct 0-based indexes to remove, in ascending order.
+     * @return the removed tasks, in list order.
+     */
+    public List<Task> removeRows(int[] positions) {
+        List<Task> removed = new ArrayList<>(positions.length);
+        int next = 0;
+        int write = 0;
+        for (int read = 0; read < size; read++) {
+            if (next < positions.length && positions[next] == read) {
+                removed.add(get(read));
+                garbage += textLengths[read];
+                next++;
+            } else {
+                moveRow(read, write++);
+            }
+        }
+        done.clear(write, size);
+        size = write;
+        modCount++;
+        compactTextIfSparse();
+        return removed;
+    }
+
+    /**
+     * Inserts tasks at the given positions by moving every row after the first position back once.
+     *
+     * @param positions the distinct 0-based indexes the tasks end up at, in ascending order.
+     * @param tasks the tasks to insert, in the same order.
+     */
+    public void insertRows(int[] positions, List<Task> tasks) {
+        ensureCapacity(size + positions.length);
+        int read = size - 1;
+        int next = positions.length - 1;
+        for (int write = size + positions.length - 1; next >= 0; write--) {
+            if (positions[next] == write) {
+                Task task = tasks.get(next--);
+                appendText(write, task.getDescription().getBytes(StandardCharsets.UTF_8));
+                writeRow(write, task);
+            } else {
+                moveRow(read--, write);
+            }
+        }
+        size += positions.length;
+        modCount++;
+    }
+
+    /**
+     * Sorts the tasks by date like {@link Task#compareTo(Task)}, keeping equal tasks in order.
+     * <p>Only the row order is sorted, by the start-time column; no task is built.</p>
+     *
+     * @return true if the order of the tasks changed.
+     */
+    public boolean sortByTime() {
+        int[] order = timeOrder();
+        if (order == null) {
+            return false;
+        }
+        reorder(order);
+        return true;
+    }
+
+    /**
+     * Returns the order {@link #sortByTime()} would put the rows in, without moving them.
+     *
+     * @return the row to place at each position, or null if the rows are already in that order.
+     */
+    public int[] timeOrder() {
+        long[] keys = new long[size];
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = types[i] == TODO ? Long.MAX_VALUE : starts[i]; // todos come last
+            order[i] = i;
+        }
+        mergeSort(order, new int[size], 0, size, keys);
+
+        for (int i = 0; i < size; i++) {
+            if (order[i] != i) {
+                return order;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Moves the rows into the given order; no task is built.
+     *
+     * @param order the row to place at each position, a permutation of 0 to size() - 1.
+     */
+    public void reorder(int[] order) {
+        byte[] newTypes = new byte[types.length];
+        long[] newStarts = new long[starts.length];
+        long[] newEnds = new long[ends.length];
+        long[] newIds = new long[ids.length];
+        int[] newOffsets = new int[textOffsets.length];
+        int[] newLengths = new int[textLengths.length];
+        BitSet newDone = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            int row = order[i];
+            newTypes[i] = types[row];
+            newStarts[i] = starts[row];
+            newEnds[i] = ends[row];
+            newIds[i] = ids[row];
+            newOffsets[i] = textOffsets[row];
+            newLengths[i] = textLengths[row];
+            newDone.set(i, done.get(row));
+        }
+        types = newTypes;
+        starts = newStarts;
+        ends = newEnds;
+        ids = newIds;
+        textOffsets = newOffsets;
+        textLengths = newLengths;
+        done.clear();
+        done.or(newDone);
+        modCount++;
+    }
+
+    /**
+     * Sorts the tasks; the natural order is sorted by {@link #sortByTime()} without building any task.
+     */
+    @Override
+    public void sort(Comparator<? super Task> comparator) {
+        if (comparator == null) {
+            sortByTime();
+        } else {
+            super.sort(comparator);
+        }
+    }
+
+    /**
+     * Sorts order[from, to) by the keys of its elements, keeping equal keys in order.
+     */
+    private static void mergeSort(int[] order, int[] buffer, int from, int to, long[] keys) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(order, buffer, from, mid, keys);
+        mergeSort(order, buffer, mid, to, keys);
+        if (keys[order[mid - 1]] <= keys[order[mid]]) {
+            return; // already in order, e.g. an almost sorted list
+        }
+        System.arraycopy(order, from, buffer, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (right >= to || left < mid && keys[buffer[left]] <= keys[buffer[right]]) {
+                order[i] = buffer[left++];
+            } else {
+                order[i] = buffer[right++];
+            }
+        }
+    }
+
+    private void writeRow(int index, Task task) {
+        if (task instanceof Event event) {
+            types[index] = EVENT;
+            starts[index] = DateTimes.toEpochMinute(event.getFrom());
+            ends[index] = DateTimes.toEpochMinute(event.getTo());
+        } else if (task instanceof Deadline deadline) {
+            types[index] = DEADLINE;
+            starts[index] = DateTimes.toEpochMinute(deadline.getBy());
+            ends[index] = starts[index];
+        } else {
+            types[index] = TODO;
+            starts[index] = 0;
+            ends[index] = 0;
+        }
+        done.set(index, task.isDone());
+        ids[index] = task.getId();
+    }
+
+    private void moveRow(int from, int to) {
+        types[to] = types[from];
+        starts[to] = starts[from];
+        ends[to] = ends[from];
+        ids[to] = ids[from];
+        textOffsets[to] = textOffsets[from];
+        textLengths[to] = textLengths[from];
+        done.set(to, done.get(from));
+    }
+
+    private void appendText(int index, byte[] description) {
+        if (textLength + description.length > text.length) {
+            text = Arrays.copyOf(text, Math.max(text.length * 2, textLength + description.length));
+        }
+        System.arraycopy(description, 0, text, textLength, description.length);
+        textOffsets[index] = textLength;
+        textLengths[index] = description.length;
+        textLength += description.length;
+    }
+
+    /**
+     * Copies the live descriptions into a new byte array once most of the text is garbage.
+     */
+    private void compactTextIfSparse() {
+        if (garbage < MIN_COMPACT_GARBAGE || garbage * 2 < textLength) {
+            return;
+        }
+        byte[] compacted = new byte[Math.max(INITIAL_CAPACITY, (textLength - garbage) * 2)];
+        int length = 0;
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(text, textOffsets[i], compacted, length, textLengths[i]);
+            textOffsets[i] = length;
+            length += textLengths[i];
+        }
+        text = compacted;
+        textLength = length;
+        garbage = 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= types.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, types.length + (types.length >> 1));
+        types = Arrays.copyOf(types, newCapacity);
+        starts = Arrays.copyOf(starts, newCapacity);
+        ends = Arrays.copyOf(ends, newCapacity);
+        ids = Arrays.copyOf(ids, newCapacity);
+        textOffsets = Arrays.copyOf(textOffsets, newCapacity);
+        textLengths = Arrays.copyOf(textLengths, newCapacity);
+    }
+}
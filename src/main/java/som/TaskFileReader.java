@@ -0,0 +1,380 @@
+package som;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import som.task.Deadline;
+import som.task.Event;
+import som.task.Task;
+import som.task.Todo;
+
+/**
+ * Parses tasks straight from the bytes of the data file.
+ * <p>This is the fast path behind {@link Storage#load()}. Instead of reading each line
+ * into a String and splitting it with a regex, it scans the buffer for newlines and
+ * " | " separators and only decodes the description and date fields, so no line
+ * Strings or String[] arrays are created for well-formed lines.</p>
+ * <p>The accepted format and error messages are the same as {@link Storage#parseTask}:
+ * each line is trimmed, corrupt lines are skipped with a warning, and blank lines at
+ * the end of the file are ignored. The file may start with a line like "N | 42" giving
+ * the next ID to hand out, see {@link Storage#getNextId()}.</p>
+ * <p>On a multi-core machine, files of {@link #PARALLEL_THRESHOLD} bytes or more are split
+ * into newline-aligned chunks that are parsed on a {@link ForkJoinPool}. The chunks' tasks are joined in file
+ * order, and warnings carry line numbers counted across the whole file.</p>
+ *
+ * @author Darien Tan
+ */
+class TaskFileReader {
+    static final int PARALLEL_THRESHOLD = 8 << 20;
+    private static final int MAX_FIELDS = 5;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final ByteBuffer buffer;
+    private final Charset charset;
+    private final int[] fieldStarts = new int[MAX_FIELDS];
+    private final int[] fieldEnds = new int[MAX_FIELDS];
+    private final List<CorruptLine> corruptLines = new ArrayList<>();
+    private byte[] scratch = new byte[256];
+    private int lineCount;
+
+    /**
+     * Constructs a reader over the given bytes.
+     *
+     * @param buffer the contents of the data file, e.g. a memory-mapped buffer.
+     * @param charset the charset the data file was written in.
+     */
+    TaskFileReader(ByteBuffer buffer, Charset charset) {
+        this.buffer = buffer;
+        this.charset = charset;
+    }
+
+    /**
+     * Parses the whole buffer, in parallel if it is large, and adds the tasks to the list.
+     * <p>A warning with the line number is printed for every corrupt line skipped.</p>
+     *
+     * @param buffer the contents of the data file.
+     * @param charset the charset the data file was written in.
+     * @param tasks the list the parsed tasks are added to, in file order.
+     * @return the next ID to hand out, or 0 if the file does not record one.
+     * @throws SomException if a task carries invalid data, e.g. an unparsable date.
+     */
+    static long readAll(ByteBuffer buffer, Charset charset, List<Task> tasks) throws SomException {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        int chunkCount = parallelism < 2 ? 1
+                : Math.min(buffer.limit() / (PARALLEL_THRESHOLD / CHUNKS_PER_THREAD), parallelism * CHUNKS_PER_THREAD);
+        return readAll(buffer, charset, tasks, PARALLEL_THRESHOLD, chunkCount);
+    }
+
+    /**
+     * Parses the whole buffer like {@link #readAll(ByteBuffer, Charset, List)}, splitting it
+     * into the given number of chunks if it holds at least the given number of bytes.
+     *
+     * @param buffer the contents of the data file.
+     * @param charset the charset the data file was written in.
+     * @param tasks the list the parsed tasks are added to, in file order.
+     * @param parallelThreshold the smallest buffer size that is parsed in chunks.
+     * @param chunkCount the number of chunks to parse in parallel; below 2 the buffer is parsed in one piece.
+     * @return the next ID to hand out, or 0 if the file does not record one.
+     * @throws SomException if a task carries invalid data, e.g. an unparsable date.
+     */
+    static long readAll(ByteBuffer buffer, Charset charset, List<Task> tasks, int parallelThreshold,
+            int chunkCount) throws SomException {
+        int size = buffer.limit();
+        TaskFileReader first = new TaskFileReader(buffer, charset);
+        long nextId = first.readNextId(size);
+        int from = first.lineCount == 0 ? 0 : lineEndAfter(buffer, 0, size);
+        if (size < parallelThreshold || chunkCount < 2) {
+            first.read(from, size, tasks);
+            first.printWarnings(0);
+            return nextId;
+        }
+        first.printWarnings(0);
+
+        List<ForkJoinTask<TaskFileReader>> chunks = new ArrayList<>(chunkCount);
+        List<List<Task>> results = new ArrayList<>(chunkCount);
+        for (int i = 1; i <= chunkCount && from < size; i++) {
+            int to = i == chunkCount ? size : lineEndAfter(buffer, (int) ((long) size * i / chunkCount), size);
+            int chunkFrom = from;
+            List<Task> result = new ArrayList<>();
+            results.add(result);
+            chunks.add(ForkJoinPool.commonPool().submit(() -> {
+                TaskFileReader reader = new TaskFileReader(buffer.duplicate(), charset);
+                reader.read(chunkFrom, to, result);
+                return reader;
+            }));
+            from = to;
+        }
+
+        int lineOffset = first.lineCount;
+        for (int i = 0; i < chunks.size(); i++) {
+            TaskFileReader reader = join(chunks.get(i));
+            reader.printWarnings(lineOffset);
+            lineOffset += reader.lineCount;
+            tasks.addAll(results.get(i));
+        }
+        return nextId;
+    }
+
+    private static TaskFileReader join(ForkJoinTask<TaskFileReader> chunk) throws SomException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SomException("Interrupted while loading tasks.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SomException) {
+                throw (SomException) e.getCause();
+            }
+            throw new SomException("Could not load tasks: " + e.getCause());
+        }
+    }
+
+    /**
+     * Returns the index just past the first newline at or after the given index.
+     */
+    private static int lineEndAfter(ByteBuffer buffer, int from, int size) {
+        for (int i = from; i < size; i++) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Parses every line starting within the given byte range and adds the tasks to the list.
+     *
+     * @param from the index of the first byte of the range, which must start a line.
+     * @param to the index after the last byte of the range, which must end a line.
+     * @param tasks the list the parsed tasks are added to, in file order.
+     * @throws SomException if a task carries invalid data, e.g. an unparsable date.
+     */
+    void read(int from, int to, List<Task> tasks) throws SomException {
+        int lineStart = from;
+        while (lineStart < to) {
+            int lineEnd = indexOf((byte) '\n', lineStart, to);
+            int next = lineEnd + 1;
+
+            int start = lineStart;
+            int end = lineEnd;
+            while (start < end && isWhitespace(buffer.get(start))) {
+                start++;
+            }
+            while (end > start && isWhitespace(buffer.get(end - 1))) {
+                end--;
+            }
+            if (start == end && isBlank(next, buffer.limit())) {
+                break; // like Scanner.hasNext(), ignore trailing blank lines
+            }
+
+            lineCount++;
+            try {
+                tasks.add(parseLine(start, end));
+            } catch (IllegalArgumentException e) {
+                corruptLines.add(new CorruptLine(lineCount, decode(start, end), e.getMessage()));
+            }
+            lineStart = next;
+        }
+    }
+
+    /**
+     * Reads the next ID from a first line like "N | 42", if the buffer starts with one.
+     * <p>The line is counted, or recorded as corrupt if the ID is invalid.</p>
+     *
+     * @param size the number of bytes in the buffer.
+     * @return the next ID, or 0 if there is none.
+     */
+    long readNextId(int size) {
+        String prefix = Storage.NEXT_ID_PREFIX;
+        if (size < prefix.length()) {
+            return 0;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (buffer.get(i) != prefix.charAt(i)) {
+                return 0;
+            }
+        }
+        int end = indexOf((byte) '\n', 0, size);
+        while (end > prefix.length() && isWhitespace(buffer.get(end - 1))) {
+            end--;
+        }
+        lineCount++;
+        try {
+            return parseId(prefix.length(), end);
+        } catch (IllegalArgumentException e) {
+            corruptLines.add(new CorruptLine(lineCount, decode(0, end), e.getMessage()));
+            return 0;
+        }
+    }
+
+    /**
+     * Prints a warning for every corrupt line skipped so far.
+     *
+     * @param lineOffset the number of lines in the file before the range this reader parsed.
+     */
+    void printWarnings(int lineOffset) {
+        for (CorruptLine corrupt : corruptLines) {
+            System.out.println("Skipping corrupt task on line " + (lineOffset + corrupt.line) + ": "
+                    + corrupt.text + "\nError: " + corrupt.error);
+        }
+    }
+
+    private Task parseLine(int start, int end) throws SomException {
+        long id = 0;
+        if (buffer.get(start) == '#') {
+            int separator = start + 1;
+            while (separator + 2 < end && !(buffer.get(separator) == ' ' && buffer.get(separator + 1) == '|'
+                    && buffer.get(separator + 2) == ' ')) {
+                separator++;
+            }
+            if (separator + 2 >= end) {
+                throw new IllegalArgumentException("Too few parts");
+            }
+            id = parseId(start + 1, separator);
+            start = separator + 3;
+        }
+
+        int count = split(start, end);
+        if (count < 3) {
+            throw new IllegalArgumentException("Too few parts");
+        }
+
+        boolean isDone = fieldEquals(1, '1');
+        Task task;
+        if (fieldEquals(0, 'T')) {
+            task = new Todo(requireField(2, count, 3, "Missing Description"));
+        } else if (fieldEquals(0, 'D')) {
+            String desc = requireField(2, count, 4, "Missing Description");
+            task = new Deadline(desc, Storage.parseStoredTime(requireField(3, count, 4, "Missing /by")));
+        } else if (fieldEquals(0, 'E')) {
+            String desc = requireField(2, count, 5, "Missing description");
+            String from = requireField(3, count, 5, "Missing /from");
+            String to = requireField(4, count, 5, "Missing /to");
+            task = new Event(desc, Storage.parseStoredTime(from), Storage.parseStoredTime(to));
+        } else {
+            throw new IllegalArgumentException("Unknown task type");
+        }
+
+        if (isDone) {
+            task.markAsDone();
+        }
+        task.setId(id);
+        return task;
+    }
+
+    /**
+     * Reads the digits of a task ID like {@link Storage#parseId}, without decoding them into a String.
+     */
+    private long parseId(int start, int end) {
+        if (start == end || end - start > Storage.MAX_ID_DIGITS) {
+            throw new IllegalArgumentException("Invalid task ID");
+        }
+        long id = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                throw new IllegalArgumentException("Invalid task ID");
+            }
+            id = id * 10 + (b - '0');
+        }
+        if (id <= 0) {
+            throw new IllegalArgumentException("Invalid task ID: " + id);
+        }
+        return id;
+    }
+
+    /**
+     * Records the bounds of up to {@link #MAX_FIELDS} fields separated by " | ".
+     * <p>Separators are matched left to right without overlapping, like
+     * {@code line.split(" \\| ", -1)}.</p>
+     *
+     * @return the number of fields, counting at most one field past the last recorded one.
+     */
+    private int split(int start, int end) {
+        int count = 0;
+        int fieldStart = start;
+        for (int i = start + 1; i + 1 < end && count < MAX_FIELDS; i++) {
+            if (buffer.get(i) == '|' && buffer.get(i - 1) == ' ' && i - 1 >= fieldStart && buffer.get(i + 1) == ' ') {
+                fieldStarts[count] = fieldStart;
+                fieldEnds[count] = i - 1;
+                count++;
+                fieldStart = i + 2;
+                i++;
+            }
+        }
+        if (count < MAX_FIELDS) {
+            fieldStarts[count] = fieldStart;
+            fieldEnds[count] = end;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether a field, ignoring surrounding whitespace, is the given single character.
+     */
+    private boolean fieldEquals(int field, char c) {
+        int start = fieldStarts[field];
+        int end = fieldEnds[field];
+        while (start < end && isWhitespace(buffer.get(start))) {
+            start++;
+        }
+        while (end > start && isWhitespace(buffer.get(end - 1))) {
+            end--;
+        }
+        return end - start == 1 && buffer.get(start) == c;
+    }
+
+    private String requireField(int field, int count, int minCount, String error) {
+        if (count < minCount || fieldStarts[field] == fieldEnds[field]) {
+            throw new IllegalArgumentException(error);
+        }
+        return decode(fieldStarts[field], fieldEnds[field]);
+    }
+
+    private String decode(int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, charset);
+    }
+
+    private int indexOf(byte b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == b) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!isWhitespace(buffer.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Matches the characters removed by {@link String#trim()}; bytes of multi-byte
+     * characters are all negative, so they never match.
+     */
+    private static boolean isWhitespace(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+    /**
+     * A skipped line, numbered from the start of the range the reader parsed.
+     */
+    private record CorruptLine(int line, String text, String error) {
+    }
+}
@@ -1,9 +1,24 @@
 package som;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import som.index.BkTree;
+import som.index.IntervalIndex;
+import som.index.LongIntMap;
+import som.index.ReminderIndex;
+import som.index.StatsIndex;
+import som.index.TaskIndex;
+import som.index.TimeIndex;
+import som.index.TokenIndex;
+import som.index.TrigramIndex;
 import som.task.Task;
 
 /**
@@ -11,17 +26,51 @@ import som.task.Task;
  * <p>This class encapsulates the internal list of Task objects and provides
  * methods for the list. It maintains the state of the task list and
  * ensures operations are performed safely.</p>
+ * <p>Secondary {@link TaskIndex} structures, such as the {@link TrigramIndex} behind
+ * find, the {@link TokenIndex} behind whole-word find and the {@link IntervalIndex} behind
+ * date-range queries, are updated alongside the list. The {@link TimeIndex} keeps deadlines
+ * and events ordered by date, so sorting the list takes a single O(n) pass. The
+ * {@link StatsIndex} keeps the totals shown by the stats command, and the {@link ReminderIndex}
+ * schedules the reminders shown before deadlines and events.</p>
+ * <p>Every task has a stable ID ({@link Task#getId()}), given when it is added, which commands
+ * can use instead of its position, e.g. {@code mark #1234}. A {@link LongIntMap} maps each ID
+ * to the task's position. Removing, inserting or sorting tasks moves the tasks after them,
+ * so the map only records how far from the start its positions are known to be current;
+ * the rest are checked when looked up and refreshed in one pass if they moved. Looking up
+ * a task by ID therefore takes O(1) time, except for the first lookup past a change, which
+ * costs no more than the change itself.</p>
+ * <p>In auto-sort mode ({@link Config#isAutoSortEnabled()}) the list is always sorted by
+ * date: new tasks are inserted in order instead of appended.</p>
+ * <p>Every change is recorded in an {@link UndoHistory}, so the latest changes can be undone
+ * and redone without keeping a copy of the list per change.</p>
+ * <p>In columnar mode ({@link Config#isColumnarEnabled()}) the tasks are kept in a
+ * {@link TaskColumns} rather than as objects. Only the statistics are indexed then, since
+ * the other indexes track tasks by identity and a columnar list builds a new task on every
+ * access; searches scan the descriptions instead.</p>
  *
  * @author Darien Tan
  */
 public class TaskList {
     private List<Task> tasks;
+    private final List<TaskIndex> indexes = new ArrayList<>();
+    private final StatsIndex statsIndex = new StatsIndex();
+    private TokenIndex tokenIndex;
+    private TrigramIndex trigramIndex;
+    private IntervalIndex intervalIndex;
+    private TimeIndex timeIndex;
+    private ReminderIndex reminderIndex;
+    private final boolean isAutoSorted = Config.isAutoSortEnabled();
+    private final LongIntMap idPositions; // task ID to position
+    private int validPositions; // positions below this are current in idPositions
+    private long nextId; // past every ID handed out, including those of deleted tasks
+    private boolean hasNewIds;
+    private final UndoHistory history = new UndoHistory(Config.getUndoDepth(), Config.getUndoTasks());
 
     /**
      * Constructs an empty TaskList
      */
     public TaskList() {
-        this.tasks = new ArrayList<>();
+        this(new ArrayList<>());
     }
 
     /**
@@ -30,7 +79,91 @@ public class TaskList {
      * @param tasks the initial list of tasks to include.
      */
     public TaskList(List<Task> tasks) {
+        this(tasks, 1);
+    }
+
+    /**
+     * Constructs a TaskList with the given tasks, handing out IDs from the given one on.
+     * <p>The next ID saved with the tasks, see {@link Storage#getNextId()}, keeps the IDs of
+     * tasks deleted before they were saved from being given out again. IDs always start
+     * past the highest ID among the tasks.</p>
+     *
+     * @param tasks the initial list of tasks to include.
+     * @param nextId the lowest ID that may be given to a new task.
+     */
+    public TaskList(List<Task> tasks, long nextId) {
+        this.nextId = Math.max(1, nextId);
+        if (Config.isColumnarEnabled() && !(tasks instanceof TaskColumns)) {
+            tasks = new TaskColumns(tasks);
+        }
         this.tasks = tasks;
+        idPositions = new LongIntMap(tasks.size());
+        assignIds();
+        indexes.add(statsIndex); // holds values only, so it also works with TaskColumns
+        if (tasks instanceof TaskColumns) {
+            rebuildIndexes();
+            return;
+        }
+        if (Config.isTokenIndexEnabled()) {
+            tokenIndex = new TokenIndex();
+            indexes.add(tokenIndex);
+        }
+        if (Config.isTrigramIndexEnabled()) {
+            trigramIndex = new TrigramIndex();
+            indexes.add(trigramIndex);
+        }
+        if (Config.isIntervalIndexEnabled()) {
+            intervalIndex = new IntervalIndex();
+            indexes.add(intervalIndex);
+        }
+        if (Config.isTimeIndexEnabled()) {
+            timeIndex = new TimeIndex();
+            indexes.add(timeIndex);
+        }
+        if (Config.isRemindersEnabled()) {
+            reminderIndex = new ReminderIndex(Config.getReminderLeadMinutes());
+            indexes.add(reminderIndex);
+        }
+        rebuildIndexes();
+    }
+
+    /**
+     * Gives every task without an ID, or with the ID of an earlier task, a new ID, and records each position.
+     */
+    private void assignIds() {
+        for (int i = 0; i < tasks.size(); i++) {
+            nextId = Math.max(nextId, getId(i) + 1);
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            long id = getId(i);
+            if (id <= 0 || idPositions.get(id) != LongIntMap.MISSING) {
+                id = nextId++;
+                setId(i, id);
+                hasNewIds = true;
+            }
+            idPositions.put(id, i);
+        }
+        validPositions = tasks.size();
+    }
+
+    /**
+     * Returns whether tasks were given new IDs when the list was built, e.g. tasks saved before
+     * tasks had IDs. The list should then be saved, so the IDs stay the same after a restart.
+     *
+     * @return true if any task was given a new ID.
+     */
+    public boolean hasNewIds() {
+        return hasNewIds;
+    }
+
+    public long getNextId() {
+        return nextId;
+    }
+
+    private void rebuildIndexes() {
+        for (TaskIndex index : indexes) {
+            index.rebuild(tasks);
+        }
     }
 
     /**
@@ -44,11 +177,62 @@ public class TaskList {
 
     /**
      * Adds a new task to the list.
+     * <p>The task is appended to the end of the list, or in auto-sort mode inserted
+     * after every task not later than it.</p>
      *
      * @param task the task to be added, must not be null.
+     * @return the 0-based index the task was placed at.
      */
-    public void add(Task task) {
-        this.tasks.add(task);
+    public int add(Task task) {
+        if (task.getId() <= 0 || idPositions.get(task.getId()) != LongIntMap.MISSING) {
+            task.setId(nextId++);
+        } else {
+            nextId = Math.max(nextId, task.getId() + 1);
+        }
+        int position = isAutoSorted ? upperBound(task) : tasks.size();
+        insert(position, task);
+        history.record(new UndoHistory.Added(position, task));
+        return position;
+    }
+
+    /**
+     * Places a task that already has its ID at the given position, which must be the end of
+     * the list or, in auto-sort mode, after every task not later than it.
+     */
+    void insert(int position, Task task) {
+        idPositions.put(task.getId(), position);
+        if (position == tasks.size()) {
+            if (validPositions == position) {
+                validPositions++;
+            }
+            this.tasks.add(task);
+            for (TaskIndex index : indexes) {
+                index.add(task);
+            }
+        } else {
+            validPositions = Math.min(validPositions, position);
+            this.tasks.add(position, task);
+            for (TaskIndex index : indexes) {
+                index.insertSorted(task);
+            }
+        }
+    }
+
+    /**
+     * Returns the index after the last task not later than the given task, assuming the list is sorted.
+     */
+    private int upperBound(Task task) {
+        int low = 0;
+        int high = tasks.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (tasks.get(mid).compareTo(task) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
     }
 
     /**
@@ -72,18 +256,36 @@ public class TaskList {
      * @throws SomException if the index is out of range.
      */
     public Task remove(int index) throws SomException {
-        assert index >= 0 && index < tasks.size() : "Invalid task index: " + index;
-        return this.tasks.remove(index);
+        checkIndex(index);
+        Task removed = removeAt(index);
+        history.record(new UndoHistory.Removed(new int[] {index}, Collections.singletonList(removed)));
+        return removed;
+    }
+
+    /**
+     * Removes the task at the given index, which must be in range.
+     */
+    Task removeAt(int index) {
+        Task removed = this.tasks.remove(index);
+        idPositions.remove(removed.getId());
+        validPositions = Math.min(validPositions, index);
+        for (TaskIndex taskIndex : indexes) {
+            taskIndex.remove(removed);
+        }
+        return removed;
     }
 
     /**
      * Marks the task at the specified index.
      *
      * @param index the 0-based index of the task to mark.
+     * @throws SomException if the index is out of range.
      */
-    public void mark(int index) {
-        assert index >= 0 && index < tasks.size() : "Invalid task index: " + index;
-        tasks.get(index).markAsDone();
+    public void mark(int index) throws SomException {
+        checkIndex(index);
+        if (updateDone(index, true)) {
+            history.record(new UndoHistory.DoneChanged(new int[] {index}, true));
+        }
     }
 
     /**
@@ -93,8 +295,313 @@ public class TaskList {
      * @throws SomException if the index is out of range.
      */
     public void unmark(int index) throws SomException {
-        assert index >= 0 && index < tasks.size() : "Invalid task index: " + index;
-        tasks.get(index).markAsUndone();
+        checkIndex(index);
+        if (updateDone(index, false)) {
+            history.record(new UndoHistory.DoneChanged(new int[] {index}, false));
+        }
+    }
+
+    /**
+     * Removes the tasks at the given positions in a single pass over the list.
+     *
+     * @param positions the distinct 0-based indexes of the tasks to remove, in ascending order.
+     * @return the removed tasks, in list order.
+     * @throws SomException if a position is out of range.
+     */
+    public List<Task> removeAll(int[] positions) throws SomException {
+        if (positions.length == 0) {
+            return new ArrayList<>();
+        }
+        checkIndex(positions[0]);
+        checkIndex(positions[positions.length - 1]);
+        List<Task> removed = removeAt(positions);
+        history.record(new UndoHistory.Removed(positions, removed));
+        return removed;
+    }
+
+    /**
+     * Removes the tasks at the given positions, which must be in range and ascending.
+     */
+    List<Task> removeAt(int[] positions) {
+        List<Task> removed;
+        if (positions.length == 1) {
+            removed = new ArrayList<>(1);
+            removed.add(removeAt(positions[0])); // shifts only the tail, unlike a pass over the whole list
+            return removed;
+        }
+        removed = removeSorted(tasks, positions);
+        validPositions = Math.min(validPositions, positions[0]);
+        for (Task task : removed) {
+            idPositions.remove(task.getId());
+            for (TaskIndex index : indexes) {
+                index.remove(task);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Marks the tasks at the given positions as done or not done.
+     *
+     * @param positions the distinct 0-based indexes of the tasks to update, in ascending order.
+     * @param isDone true to mark the tasks as done, false to mark them as not done.
+     * @throws SomException if a position is out of range.
+     */
+    public void markAll(int[] positions, boolean isDone) throws SomException {
+        if (positions.length == 0) {
+            return;
+        }
+        checkIndex(positions[0]);
+        checkIndex(positions[positions.length - 1]);
+        int[] changed = new int[positions.length];
+        int count = 0;
+        for (int position : positions) {
+            if (updateDone(position, isDone)) {
+                changed[count++] = position;
+            }
+        }
+        if (count > 0) {
+            history.record(new UndoHistory.DoneChanged(Arrays.copyOf(changed, count), isDone));
+        }
+    }
+
+    /**
+     * Marks the tasks at the given positions, which must be in range, as done or not done.
+     */
+    void updateDone(int[] positions, boolean isDone) {
+        for (int position : positions) {
+            updateDone(position, isDone);
+        }
+    }
+
+    /**
+     * Marks the task at the given index as done or not done.
+     *
+     * @return true if its status changed.
+     */
+    private boolean updateDone(int index, boolean isDone) {
+        if (isDone(index) == isDone) {
+            return false;
+        }
+        setDone(tasks, index, isDone);
+        Task task = tasks.get(index);
+        for (TaskIndex taskIndex : indexes) {
+            taskIndex.doneChanged(task);
+        }
+        return true;
+    }
+
+    /**
+     * Puts removed tasks back at the positions they were removed from, e.g. when a delete is undone.
+     *
+     * @param positions the distinct 0-based indexes the tasks return to, in ascending order.
+     * @param restored the tasks, in the same order.
+     */
+    void restore(int[] positions, List<Task> restored) {
+        insertSorted(tasks, positions, restored);
+        validPositions = Math.min(validPositions, positions[0]);
+        for (int i = 0; i < positions.length; i++) {
+            Task task = restored.get(i);
+            idPositions.put(task.getId(), positions[i]);
+            for (TaskIndex index : indexes) {
+                index.restored(task, tasks);
+            }
+        }
+    }
+
+    /**
+     * Puts the tasks back in the order they had before a sort, e.g. when the sort is undone.
+     *
+     * @param previous the tasks in their earlier order.
+     */
+    void restoreOrder(Task[] previous) {
+        for (int i = 0; i < previous.length; i++) {
+            tasks.set(i, previous[i]);
+        }
+        reordered();
+    }
+
+    /**
+     * Puts the rows of a columnar list back in the order they had before a sort.
+     *
+     * @param order the row order the sort applied, see {@link TaskColumns#timeOrder()}.
+     */
+    void restoreOrder(int[] order) {
+        int[] inverse = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            inverse[order[i]] = i;
+        }
+        ((TaskColumns) tasks).reorder(inverse);
+        reordered();
+    }
+
+    private void reordered() {
+        validPositions = 0;
+        for (TaskIndex index : indexes) {
+            index.sorted(tasks);
+        }
+    }
+
+    /**
+     * Marks the task at the given position of a list as done or not done.
+     * <p>A {@link TaskColumns} is updated in place, since its tasks are copies.</p>
+     *
+     * @param list the list holding the task.
+     * @param index the 0-based index of the task.
+     * @param isDone true to mark the task as done, false to mark it as not done.
+     */
+    static void setDone(List<Task> list, int index, boolean isDone) {
+        if (list instanceof TaskColumns columns) {
+            columns.setDone(index, isDone);
+        } else if (isDone) {
+            list.get(index).markAsDone();
+        } else {
+            list.get(index).markAsUndone();
+        }
+    }
+
+    /**
+     * Inserts elements at the given positions by moving every element after the first position back once,
+     * instead of shifting the tail of the list for each insertion.
+     *
+     * @param list the list to insert into.
+     * @param positions the distinct 0-based indexes the elements end up at, in ascending order.
+     * @param inserted the elements to insert, in the same order.
+     */
+    static void insertSorted(List<Task> list, int[] positions, List<Task> inserted) {
+        if (list instanceof TaskColumns columns) {
+            columns.insertRows(positions, inserted);
+            return;
+        }
+        if (positions.length == 1) {
+            list.add(positions[0], inserted.get(0));
+            return;
+        }
+        int read = list.size() - 1;
+        list.addAll(Collections.nCopies(positions.length, null));
+        int next = positions.length - 1;
+        for (int write = list.size() - 1; next >= 0; write--) {
+            list.set(write, positions[next] == write ? inserted.get(next--) : list.get(read--));
+        }
+    }
+
+    /**
+     * Removes the elements at the given positions by moving every kept element forward once,
+     * instead of shifting the tail of the list for each removal.
+     *
+     * @param list the list to compact.
+     * @param positions the distinct 0-based indexes to remove, in ascending order.
+     * @return the removed elements, in list order.
+     */
+    static List<Task> removeSorted(List<Task> list, int[] positions) {
+        if (list instanceof TaskColumns columns) {
+            return columns.removeRows(positions);
+        }
+        List<Task> removed = new ArrayList<>(positions.length);
+        int next = 0;
+        int write = 0;
+        for (int read = 0; read < list.size(); read++) {
+            Task task = list.get(read);
+            if (next < positions.length && positions[next] == read) {
+                removed.add(task);
+                next++;
+            } else {
+                list.set(write++, task);
+            }
+        }
+        list.subList(write, list.size()).clear();
+        return removed;
+    }
+
+    private void checkIndex(int index) throws SomException {
+        if (index < 0 || index >= tasks.size()) {
+            throw new SomException("There is no task " + (index + 1) + ". You have " + tasks.size()
+                    + " tasks in the list.");
+        }
+    }
+
+    /**
+     * Returns the position of the task with the given ID.
+     *
+     * @param id the task ID, see {@link Task#getId()}.
+     * @return the 0-based index of the task.
+     * @throws SomException if no task has that ID.
+     */
+    public int indexOfId(long id) throws SomException {
+        int position = findPosition(id);
+        if (position == LongIntMap.MISSING) {
+            throw new SomException("There is no task #" + id + ".");
+        }
+        return position;
+    }
+
+    /**
+     * Returns the position of the task with the given ID, or {@link LongIntMap#MISSING} if there is none.
+     */
+    private int findPosition(long id) {
+        int position = idPositions.get(id);
+        if (position != LongIntMap.MISSING && position >= validPositions
+                && (position >= tasks.size() || getId(position) != id)) {
+            for (int i = validPositions; i < tasks.size(); i++) {
+                idPositions.put(getId(i), i);
+            }
+            validPositions = tasks.size();
+            position = idPositions.get(id);
+        }
+        if (position == LongIntMap.MISSING || position >= tasks.size() || getId(position) != id) {
+            return LongIntMap.MISSING;
+        }
+        return position;
+    }
+
+    /**
+     * Returns the ID of the task at the specified index.
+     * <p>Unlike {@code get(index).getId()} this builds no task in columnar mode.</p>
+     *
+     * @param index the 0-based index of the task.
+     * @return the task ID.
+     */
+    public long getId(int index) {
+        if (tasks instanceof TaskColumns columns) {
+            return columns.getId(index);
+        }
+        return tasks.get(index).getId();
+    }
+
+    private void setId(int index, long id) {
+        if (tasks instanceof TaskColumns columns) {
+            columns.setId(index, id);
+        } else {
+            tasks.get(index).setId(id);
+        }
+    }
+
+    /**
+     * Returns the description of the task at the specified index.
+     * <p>Unlike {@code get(index).getDescription()} this builds no task in columnar mode.</p>
+     *
+     * @param index the 0-based index of the task.
+     * @return the task description.
+     */
+    public String getDescription(int index) {
+        if (tasks instanceof TaskColumns columns) {
+            return columns.getDescription(index);
+        }
+        return tasks.get(index).getDescription();
+    }
+
+    /**
+     * Returns whether the task at the specified index is done.
+     * <p>Unlike {@code get(index).isDone()} this builds no task in columnar mode.</p>
+     *
+     * @param index the 0-based index of the task.
+     * @return true if the task is done.
+     */
+    public boolean isDone(int index) {
+        if (tasks instanceof TaskColumns columns) {
+            return columns.isDone(index);
+        }
+        return tasks.get(index).isDone();
     }
 
     /**
@@ -112,22 +619,227 @@ public class TaskList {
      * The method parses the input and searches through the task list the keyword.
      * Matching tasks are printed in a formatted list. If no tasks are found,
      * a friendly message is shown instead.</p>
+     * <p>Keywords of three or more characters are answered through the trigram index
+     * when it is enabled; shorter ones scan the whole list.</p>
      * <p>Example usage: find book</p>
      *
      * @param keyword the item to be looked for.
      * @return a List consisting of all matching tasks with the specified date.
      */
     public List<Task> findTasks(String keyword) {
+        String lowerKeyword = keyword.toLowerCase();
+        if (trigramIndex != null && lowerKeyword.length() >= TrigramIndex.MIN_KEYWORD_LENGTH) {
+            return trigramIndex.find(lowerKeyword);
+        }
+
         List<Task> matches = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            if (getDescription(i).toLowerCase().contains(lowerKeyword)) {
+                matches.add(tasks.get(i));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Finds all tasks whose description contains every word of the keyword as a whole word.
+     * <p>Unlike {@link #findTasks(String)}, {@code find -w book} matches "read book"
+     * but not "notebook". Uses the token index when enabled, otherwise scans the list.</p>
+     *
+     * @param keyword the word or words to look for, case-insensitively.
+     * @return a List consisting of all matching tasks, in list order.
+     */
+    public List<Task> findWholeWords(String keyword) {
+        Set<String> words = TokenIndex.tokenize(keyword);
+        if (tokenIndex != null) {
+            return tokenIndex.find(words);
+        }
+
+        List<Task> matches = new ArrayList<>();
+        if (words.isEmpty()) {
+            return matches;
+        }
         for (Task t : tasks) {
-            if (t.getDescription().toLowerCase().contains(keyword.toLowerCase())) {
+            if (TokenIndex.tokenize(t.getDescription()).containsAll(words)) {
                 matches.add(t);
             }
         }
         return matches;
     }
 
-    public void sortTasks() {
-        Collections.sort(tasks);
+    /**
+     * Finds all tasks matching every word of the keyword despite typos.
+     * <p>A keyword word matches a description word within {@link TokenIndex#maxTypos(String)}
+     * edits of it, so {@code find~ bok} finds "read book". Uses the token index when enabled,
+     * otherwise scans the list.</p>
+     *
+     * @param keyword the word or words to look for, case-insensitively.
+     * @return a List consisting of all matching tasks, ranked by their total edit distance.
+     */
+    public List<Task> findFuzzy(String keyword) {
+        Set<String> words = TokenIndex.tokenize(keyword);
+        if (tokenIndex != null) {
+            return tokenIndex.findFuzzy(words, task -> findPosition(task.getId()));
+        }
+
+        Map<Task, Integer> scores = new LinkedHashMap<>();
+        for (Task t : tasks) {
+            Set<String> taskWords = TokenIndex.tokenize(t.getDescription());
+            int score = 0;
+            for (String word : words) {
+                int closest = Integer.MAX_VALUE;
+                for (String taskWord : taskWords) {
+                    closest = Math.min(closest, BkTree.distance(word, taskWord));
+                }
+                score = closest > TokenIndex.maxTypos(word) ? -1 : score + closest;
+                if (score < 0) {
+                    break;
+                }
+            }
+            if (score >= 0 && !words.isEmpty()) {
+                scores.put(t, score);
+            }
+        }
+        return TokenIndex.rank(scores);
+    }
+
+    /**
+     * Finds all deadlines and events overlapping the given period, both ends included.
+     * <p>A deadline matches if it is due within the period, and an event matches if any
+     * part of it falls within the period. Uses the interval index when enabled, otherwise
+     * scans the list.</p>
+     *
+     * @param from the start of the period.
+     * @param to the end of the period.
+     * @return a List consisting of all matching tasks, ordered by start time.
+     */
+    public List<Task> findBetween(LocalDateTime from, LocalDateTime to) {
+        if (intervalIndex != null) {
+            return intervalIndex.find(from, to);
+        }
+
+        List<Task> matches = new ArrayList<>();
+        for (Task t : tasks) {
+            if (t.getStartTime() != null && !t.getStartTime().isAfter(to) && !t.getEndTime().isBefore(from)) {
+                matches.add(t);
+            }
+        }
+        matches.sort(Comparator.comparing(Task::getStartTime));
+        return matches;
+    }
+
+    /**
+     * Returns the number of tasks by type and status, and of pending deadlines by due date.
+     * <p>The figures are kept up to date as the list changes, so this does not scan the list.</p>
+     *
+     * @param now the current time, see {@link som.task.TaskClock#now()}.
+     * @return the statistics as of that time.
+     */
+    public StatsIndex.Stats getStats(LocalDateTime now) {
+        return statsIndex.getStats(now);
+    }
+
+    /**
+     * Returns the deadlines and events whose reminders have fallen due since the last call.
+     * <p>Each task is returned once, {@link Config#getReminderLeadMinutes()} before it is due
+     * or starts, or as soon as possible if it was added later than that. Safe to call from
+     * another thread while the list is changed. There are no reminders in columnar mode.</p>
+     *
+     * @param now the current time, see {@link som.task.TaskClock#now()}.
+     * @return the tasks to remind the user of, earliest first.
+     */
+    public List<Task> takeDueReminders(LocalDateTime now) {
+        if (reminderIndex == null) {
+            return new ArrayList<>();
+        }
+        return reminderIndex.takeDue(now);
+    }
+
+    /**
+     * Undoes the latest change to the list, or the latest batch of changes.
+     *
+     * @return what was undone, with the journal records describing the undo.
+     * @throws SomException if there is nothing to undo.
+     */
+    public UndoHistory.Result undo() throws SomException {
+        return history.undo(this);
+    }
+
+    /**
+     * Makes the latest undone change again.
+     *
+     * @return what was redone, with the journal records describing it.
+     * @throws SomException if there is nothing to redo.
+     */
+    public UndoHistory.Result redo() throws SomException {
+        return history.redo(this);
+    }
+
+    /**
+     * Starts a batch of changes, which are undone together once {@link #endBatch()} is called.
+     */
+    public void beginBatch() {
+        history.beginBatch();
+    }
+
+    /**
+     * Ends the current batch of changes, making it a single step of the undo history.
+     */
+    public void endBatch() {
+        history.endBatch();
+    }
+
+    /**
+     * Forgets every change made so far, so none of them can be undone, e.g. the fixes made to a list when it is loaded.
+     */
+    public void clearHistory() {
+        history.clear();
+    }
+
+    /**
+     * Sorts the tasks by date, see {@link Task#compareTo(Task)}.
+     * <p>With the time index enabled, the sorted order is read off the index in O(n)
+     * instead of comparing tasks. In columnar mode only the rows are reordered, by their
+     * time column. Tasks with equal times keep their relative order.</p>
+     *
+     * @return true if the order of the tasks changed.
+     */
+    public boolean sortTasks() {
+        if (tasks instanceof TaskColumns columns) {
+            int[] order = columns.timeOrder();
+            if (order == null) {
+                return false;
+            }
+            columns.reorder(order);
+            validPositions = 0;
+            history.record(new UndoHistory.Sorted(order));
+            return true;
+        }
+        List<Task> sorted;
+        if (timeIndex != null) {
+            sorted = timeIndex.sort(tasks);
+        } else {
+            sorted = new ArrayList<>(tasks);
+            Collections.sort(sorted);
+        }
+
+        boolean isChanged = false;
+        Task[] previous = history.isRecording() ? new Task[sorted.size()] : null;
+        for (int i = 0; i < sorted.size(); i++) {
+            Task replaced = tasks.set(i, sorted.get(i));
+            if (previous != null) {
+                previous[i] = replaced;
+            }
+            if (replaced != sorted.get(i)) {
+                isChanged = true;
+            }
+        }
+        if (isChanged) {
+            reordered();
+            if (previous != null) {
+                history.record(new UndoHistory.Sorted(previous));
+            }
+        }
+        return isChanged;
     }
 }
@@ -1,7 +1,11 @@
 package som;
 
+import java.time.LocalDate;
+import java.time.format.TextStyle;
 import java.util.List;
+import java.util.Locale;
 
+import som.index.StatsIndex;
 import som.task.Task;
 
 /**
@@ -14,6 +18,8 @@ import som.task.Task;
  */
 public class Ui {
     private static final String LINE_SEPARATOR = "____________________________________________________________";
+    private static final int MAX_FAILURES_SHOWN = 20;
+    private static final int MAX_REMINDERS_SHOWN = 20;
 
     /**
      * Displays the welcome message when the app starts.
@@ -52,7 +58,7 @@ public class Ui {
     /**
      * Displays all tasks matching a keyword search.
      *
-     * @param matches the list of matching tasks
+     * @param matches the list of matching tasks, in the order they should be ranked
      * @param keyword the search keyword
      * @return formatted result message
      */
@@ -68,6 +74,64 @@ public class Ui {
         return sb.toString().trim();
     }
 
+    /**
+     * Displays the deadlines and events found in a period of time.
+     *
+     * @param matches the tasks in the period, ordered by start time.
+     * @return formatted results message
+     */
+    public String showPeriodResults(List<Task> matches) {
+        if (matches.isEmpty()) {
+            return "No deadlines or events found in that period.";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("Here are the deadlines and events in that period:\n");
+        for (int i = 0; i < matches.size(); i++) {
+            sb.append(i + 1).append(". ").append(matches.get(i)).append("\n");
+        }
+        return sb.toString().trim();
+    }
+
+    /**
+     * Reports the lines of a script that could not be parsed, none of which were run.
+     *
+     * @param fileName the name of the script.
+     * @param failures one message per failed line, starting with its line number.
+     * @return formatted error message
+     */
+    public String showScriptErrors(String fileName, List<String> failures) {
+        return appendFailures(new StringBuilder("No commands were run, as these lines of " + fileName
+                + " could not be read:\n"), failures);
+    }
+
+    /**
+     * Summarises a script run as one batch.
+     *
+     * @param fileName the name of the script.
+     * @param succeeded the number of commands that ran successfully.
+     * @param total the number of commands in the script.
+     * @param failures one message per failed command, starting with its line number.
+     * @return formatted results message
+     */
+    public String showScriptResults(String fileName, int succeeded, int total, List<String> failures) {
+        if (failures.isEmpty()) {
+            return "Ran all " + total + " commands in " + fileName + ".";
+        }
+        return appendFailures(new StringBuilder("Ran " + succeeded + " of " + total + " commands in " + fileName
+                + ". These lines failed:\n"), failures);
+    }
+
+    private String appendFailures(StringBuilder sb, List<String> failures) {
+        int shown = Math.min(failures.size(), MAX_FAILURES_SHOWN);
+        for (int i = 0; i < shown; i++) {
+            sb.append(failures.get(i)).append("\n");
+        }
+        if (failures.size() > shown) {
+            sb.append("...and ").append(failures.size() - shown).append(" more.");
+        }
+        return sb.toString().trim();
+    }
+
     /**
      * Confirms the deletion of a task.
      *
@@ -83,6 +147,17 @@ public class Ui {
         return sb.toString();
     }
 
+    /**
+     * Confirms the deletion of several tasks.
+     *
+     * @param count the number of tasks that were deleted
+     * @param total the number of tasks remaining in the list
+     * @return confirmation message
+     */
+    public String showDeleteAll(int count, int total) {
+        return "Noted. I've removed " + count + " tasks.\nNow you have " + total + " tasks in the list.";
+    }
+
     /**
      * Confirms the addition of a new task.
      *
@@ -92,7 +167,8 @@ public class Ui {
      */
     public String showAdd(Task task, int total) {
         StringBuilder sb = new StringBuilder();
-        sb.append("Got it. I've added this task:\n");
+        sb.append("Got it. I've added this task").append(task.getId() > 0 ? " (#" + task.getId() + ")" : "")
+                .append(":\n");
         sb.append(task).append("\n");
         sb.append("Now you have ").append(total).append(" tasks in the list.");
         return sb.toString();
@@ -101,7 +177,7 @@ public class Ui {
     /**
      * Displays all tasks in the current list with their index and status.
      * <p>If the list is empty, a message is shown indicating no tasks exist.
-     * Each task is printed with its ID (1-based) and string representation.</p>
+     * Each task is printed with its position (1-based), string representation and stable ID.</p>
      *
      * @param tasks the list of tasks to display
      * @return formatted list message
@@ -113,7 +189,12 @@ public class Ui {
         StringBuilder sb = new StringBuilder();
         sb.append("Here are the tasks in your list:\n");
         for (int i = 0; i < tasks.size(); i++) {
-            sb.append(i + 1).append(". ").append(tasks.get(i)).append("\n");
+            Task task = tasks.get(i);
+            sb.append(i + 1).append(". ").append(task);
+            if (task.getId() > 0) {
+                sb.append(" (#").append(task.getId()).append(")");
+            }
+            sb.append("\n");
         }
         return sb.toString().trim();
     }
@@ -138,6 +219,51 @@ public class Ui {
         return "OK, I've marked this task as not done yet:\n" + task;
     }
 
+    /**
+     * Confirms that several tasks have been marked as done.
+     *
+     * @param count the number of tasks that were marked
+     * @return confirmation message
+     */
+    public String showMarkedAll(int count) {
+        return "Nice! I've marked " + count + " tasks as done.";
+    }
+
+    /**
+     * Confirms that several tasks have been marked as not done.
+     *
+     * @param count the number of tasks that were unmarked
+     * @return confirmation message
+     */
+    public String showUnmarkedAll(int count) {
+        return "OK, I've marked " + count + " tasks as not done yet.";
+    }
+
+    /**
+     * Tells the user that a bulk command selected no tasks.
+     *
+     * @return message saying nothing was changed
+     */
+    public String showNoneSelected() {
+        return "No tasks matched, so nothing was changed.";
+    }
+
+    /**
+     * Displays the hits, misses and hit rate of each cache.
+     *
+     * @param caches the caches to report on
+     * @return formatted metrics message
+     */
+    public String showMetrics(List<Metrics.Cache> caches) {
+        StringBuilder sb = new StringBuilder("Here is how the caches are doing:\n");
+        for (Metrics.Cache cache : caches) {
+            sb.append(cache.getName()).append(": ").append(cache.getHits()).append(" hits, ")
+                    .append(cache.getMisses()).append(" misses (")
+                    .append(String.format("%.1f", cache.getHitRate() * 100)).append("% hit rate)\n");
+        }
+        return sb.toString().trim();
+    }
+
     /**
      * Displays an error message when loading tasks fails.
      *
@@ -148,6 +274,69 @@ public class Ui {
         return "Error loading: " + error + "\nStarting with empty task list.";
     }
 
+    /**
+     * Displays a summary of the task list.
+     *
+     * @param stats the statistics to display
+     * @param today the date the statistics were taken on, which starts the week
+     * @return formatted statistics message
+     */
+    public String showStats(StatsIndex.Stats stats, LocalDate today) {
+        StringBuilder sb = new StringBuilder("Here is a summary of your tasks:\n");
+        sb.append("Total: ").append(stats.total()).append(" (").append(stats.todos()).append(" todos, ")
+                .append(stats.deadlines()).append(" deadlines, ").append(stats.events()).append(" events)\n");
+        sb.append("Done: ").append(stats.done()).append(", pending: ").append(stats.pending()).append("\n");
+        sb.append("Overdue deadlines: ").append(stats.overdue()).append("\n");
+        sb.append("Due this week: ").append(stats.dueThisWeek()).append(" (");
+        int[] dueByDay = stats.dueByDay();
+        for (int i = 0; i < dueByDay.length; i++) {
+            String day = i == 0 ? "today"
+                    : today.plusDays(i).getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.ENGLISH);
+            sb.append(i == 0 ? "" : ", ").append(day).append(" ").append(dueByDay[i]);
+        }
+        return sb.append(")").toString();
+    }
+
+    /**
+     * Reminds the user of deadlines and events coming up soon.
+     *
+     * @param tasks the tasks to remind of, earliest first
+     * @return formatted reminder message
+     */
+    public String showReminders(List<Task> tasks) {
+        StringBuilder sb = new StringBuilder("Reminder! Coming up soon:\n");
+        int shown = Math.min(tasks.size(), MAX_REMINDERS_SHOWN);
+        for (int i = 0; i < shown; i++) {
+            sb.append(tasks.get(i)).append("\n");
+        }
+        if (tasks.size() > shown) {
+            sb.append("...and ").append(tasks.size() - shown).append(" more.");
+        }
+        return sb.toString().trim();
+    }
+
+    /**
+     * Confirms that a change was undone.
+     *
+     * @param change what the change did, e.g. "deleting 3 tasks"
+     * @param total the number of tasks in the list after the undo
+     * @return confirmation message
+     */
+    public String showUndone(String change, int total) {
+        return "Undid " + change + ".\nNow you have " + total + " tasks in the list.";
+    }
+
+    /**
+     * Confirms that an undone change was made again.
+     *
+     * @param change what the change did, e.g. "deleting 3 tasks"
+     * @param total the number of tasks in the list after the redo
+     * @return confirmation message
+     */
+    public String showRedone(String change, int total) {
+        return "Redid " + change + ".\nNow you have " + total + " tasks in the list.";
+    }
+
     /**
      * Displays a confirmation message after sorting tasks.
      *
@@ -173,8 +362,18 @@ public class Ui {
         sb.append("mark <index>                    – Mark task as done\n");
         sb.append("unmark <index>                  – Mark task as not done\n");
         sb.append("delete <index>                  – Delete a task\n");
+        sb.append("mark/unmark/delete #<id>        – Name a task by the ID shown in the list\n");
+        sb.append("mark/unmark/delete <selection>  – Apply to many tasks: 3,7,19  10-50  done  find:book\n");
         sb.append("find <keyword>                  – Find tasks by keyword\n");
+        sb.append("find -w <word>                  – Find tasks containing a whole word\n");
+        sb.append("find~ <word>                    – Find tasks despite typos, closest first\n");
+        sb.append("on <date>                       – Show deadlines/events on a day\n");
+        sb.append("between <start> /to <end>       – Show deadlines/events in a period\n");
         sb.append("sort                            – Sort deadlines/events by date\n");
+        sb.append("undo / redo                     – Undo the last change, or redo an undone one\n");
+        sb.append("run <file>                      – Run every command in a file, saving once\n");
+        sb.append("stats                           – Show task counts, overdue and due this week\n");
+        sb.append("metrics                         – Show how often cached task text is reused\n");
         sb.append("bye                             – Exit the app");
 
         return sb.toString().trim();
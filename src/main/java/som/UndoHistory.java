@@ -0,0 +1,346 @@
+package som;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import som.task.Task;
+
+/**
+ * Remembers the recent changes to a {@link TaskList} so they can be undone and redone.
+ * <p>Rather than a copy of the list for every version, each step of the history holds only
+ * what one command changed: the position of an added task, the positions and tasks of
+ * removed ones, the positions whose done status flipped, or the order from before a sort.
+ * Every earlier version thus shares all of its unchanged tasks with the current list, and
+ * undoing or redoing a step goes through the same incremental updates of the list, its
+ * indexes and the journal as the change itself, so it costs about as much as that change.
+ * Like adding or deleting tasks, putting them back or taking them out again shifts the
+ * tasks after them, and a sort, which moves every task, takes O(n) time.</p>
+ * <p>A step holds one entry per task it covers: one for an add, one per task for a mark or
+ * a delete, and one per task in the list for a sort. The oldest steps are dropped once more
+ * than {@link Config#getUndoDepth()} steps are kept or the kept steps, including those that
+ * can be redone, hold more than {@link Config#getUndoTasks()} entries between them. The
+ * latest step is kept whatever its size, so the history never holds more than that limit
+ * plus the entries of one step, e.g. a sort of the whole list.</p>
+ * <p>A new change discards the steps that could be redone. The changes made in a batch, e.g.
+ * by a script run with the run command, are undone and redone as one step.</p>
+ *
+ * @author Darien Tan
+ */
+public class UndoHistory {
+    private final int depth;
+    private final long maxEntries;
+    private long entries; // held by the steps that can be undone or redone
+    private final Deque<List<Change>> undoSteps = new ArrayDeque<>();
+    private final Deque<List<Change>> redoSteps = new ArrayDeque<>();
+    private List<Change> batch; // the step recorded by the open batch, if any
+    private boolean isReplaying;
+
+    /**
+     * Constructs an empty history keeping the given number of steps.
+     *
+     * @param depth the number of steps that can be undone, 0 to record nothing.
+     * @param maxEntries the number of entries the steps may hold between them, see {@link Change#size()}.
+     */
+    UndoHistory(int depth, long maxEntries) {
+        this.depth = depth;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns whether changes made now are recorded, which is not the case while a step is undone or redone.
+     */
+    boolean isRecording() {
+        return depth > 0 && !isReplaying;
+    }
+
+    /**
+     * Records a change just made to the list, as a step of its own or as part of the open batch.
+     */
+    void record(Change change) {
+        if (!isRecording()) {
+            return;
+        }
+        while (!redoSteps.isEmpty()) {
+            entries -= size(redoSteps.pop());
+        }
+        if (batch != null) {
+            batch.add(change);
+            return;
+        }
+        List<Change> step = new ArrayList<>(1);
+        step.add(change);
+        entries += change.size();
+        push(step);
+    }
+
+    /**
+     * Pushes a step whose entries are already counted, then drops the oldest steps beyond the limits.
+     */
+    private void push(List<Change> step) {
+        undoSteps.push(step);
+        while (undoSteps.size() > 1 && (undoSteps.size() > depth || entries > maxEntries)) {
+            entries -= size(undoSteps.removeLast());
+        }
+    }
+
+    private static long size(List<Change> step) {
+        long size = 0;
+        for (Change change : step) {
+            size += change.size();
+        }
+        return size;
+    }
+
+    void beginBatch() {
+        batch = new ArrayList<>();
+    }
+
+    void endBatch() {
+        if (batch != null && !batch.isEmpty() && isRecording()) {
+            entries += size(batch);
+            push(batch);
+        }
+        batch = null;
+    }
+
+    void clear() {
+        undoSteps.clear();
+        redoSteps.clear();
+        entries = 0;
+    }
+
+    /**
+     * Reverses the latest step, newest change first.
+     */
+    Result undo(TaskList tasks) throws SomException {
+        List<Change> step = undoSteps.poll();
+        if (step == null) {
+            throw new SomException("There is nothing to undo.");
+        }
+        List<String> records = new ArrayList<>();
+        isReplaying = true;
+        try {
+            for (int i = step.size() - 1; i >= 0; i--) {
+                step.get(i).undo(tasks, records);
+            }
+        } finally {
+            isReplaying = false;
+        }
+        redoSteps.push(step);
+        return new Result(summarize(step), records);
+    }
+
+    /**
+     * Makes the latest undone step again, oldest change first.
+     */
+    Result redo(TaskList tasks) throws SomException {
+        List<Change> step = redoSteps.poll();
+        if (step == null) {
+            throw new SomException("There is nothing to redo.");
+        }
+        List<String> records = new ArrayList<>();
+        isReplaying = true;
+        try {
+            for (Change change : step) {
+                change.redo(tasks, records);
+            }
+        } finally {
+            isReplaying = false;
+        }
+        push(step);
+        return new Result(summarize(step), records);
+    }
+
+    private static String summarize(List<Change> step) {
+        return step.size() == 1 ? step.get(0).describe() : step.size() + " changes made by a script";
+    }
+
+    private static String count(int tasks) {
+        return tasks + (tasks == 1 ? " task" : " tasks");
+    }
+
+    /**
+     * The outcome of undoing or redoing a step.
+     *
+     * @param summary what the step did, e.g. "deleting 3 tasks".
+     * @param records the journal records describing the undo or redo, see {@link Storage#appendAll(List, TaskList)}.
+     */
+    public record Result(String summary, List<String> records) {
+    }
+
+    /**
+     * A single change to the list, with what is needed to reverse it.
+     */
+    abstract static class Change {
+        /**
+         * Reverses the change, appending the journal records that describe the reversal.
+         */
+        abstract void undo(TaskList tasks, List<String> records);
+
+        /**
+         * Makes the change again, appending the journal records that describe it.
+         */
+        abstract void redo(TaskList tasks, List<String> records);
+
+        abstract String describe();
+
+        /**
+         * Returns the number of entries the change holds: one per task it covers.
+         */
+        abstract int size();
+    }
+
+    /**
+     * A task added at a position.
+     */
+    static class Added extends Change {
+        private final int position;
+        private final Task task;
+
+        Added(int position, Task task) {
+            this.position = position;
+            this.task = task;
+        }
+
+        @Override
+        void undo(TaskList tasks, List<String> records) {
+            tasks.removeAt(position);
+            records.add(Journal.delete(position));
+        }
+
+        @Override
+        void redo(TaskList tasks, List<String> records) {
+            tasks.insert(position, task);
+            records.add(position == tasks.size() - 1 ? Journal.add(task) : Journal.insert(position, task));
+        }
+
+        @Override
+        String describe() {
+            return "adding " + task;
+        }
+
+        @Override
+        int size() {
+            return 1;
+        }
+    }
+
+    /**
+     * Tasks removed from the given positions.
+     */
+    static class Removed extends Change {
+        private final int[] positions;
+        private final List<Task> removed;
+
+        Removed(int[] positions, List<Task> removed) {
+            this.positions = positions;
+            this.removed = removed;
+        }
+
+        @Override
+        void undo(TaskList tasks, List<String> records) {
+            tasks.restore(positions, removed);
+            for (int i = 0; i < positions.length; i++) {
+                records.add(Journal.insert(positions[i], removed.get(i)));
+            }
+        }
+
+        @Override
+        void redo(TaskList tasks, List<String> records) {
+            tasks.removeAt(positions);
+            records.add(Journal.delete(positions));
+        }
+
+        @Override
+        String describe() {
+            return "deleting " + (removed.size() == 1 ? removed.get(0).toString() : count(removed.size()));
+        }
+
+        @Override
+        int size() {
+            return positions.length;
+        }
+    }
+
+    /**
+     * Tasks marked as done or not done; only those whose status actually changed.
+     */
+    static class DoneChanged extends Change {
+        private final int[] positions;
+        private final boolean isDone;
+
+        DoneChanged(int[] positions, boolean isDone) {
+            this.positions = positions;
+            this.isDone = isDone;
+        }
+
+        @Override
+        void undo(TaskList tasks, List<String> records) {
+            tasks.updateDone(positions, !isDone);
+            records.add(isDone ? Journal.unmark(positions) : Journal.mark(positions));
+        }
+
+        @Override
+        void redo(TaskList tasks, List<String> records) {
+            tasks.updateDone(positions, isDone);
+            records.add(isDone ? Journal.mark(positions) : Journal.unmark(positions));
+        }
+
+        @Override
+        String describe() {
+            return (isDone ? "marking " : "unmarking ") + count(positions.length);
+        }
+
+        @Override
+        int size() {
+            return positions.length;
+        }
+    }
+
+    /**
+     * The list sorted by date; holds either the tasks in their earlier order or, for a
+     * {@link TaskColumns}, the row order the sort applied.
+     */
+    static class Sorted extends Change {
+        private final Task[] previous;
+        private final int[] order;
+
+        Sorted(Task[] previous) {
+            this.previous = previous;
+            this.order = null;
+        }
+
+        Sorted(int[] order) {
+            this.previous = null;
+            this.order = order;
+        }
+
+        @Override
+        void undo(TaskList tasks, List<String> records) {
+            if (order != null) {
+                tasks.restoreOrder(order);
+            } else {
+                tasks.restoreOrder(previous);
+            }
+            records.add(null); // no record restores an order, so the whole list is saved
+        }
+
+        @Override
+        void redo(TaskList tasks, List<String> records) {
+            tasks.sortTasks();
+            records.add(Journal.sort());
+        }
+
+        @Override
+        String describe() {
+            return "sorting the list";
+        }
+
+        @Override
+        int size() {
+            return order != null ? order.length : previous.length;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package som.command;
 
+import som.Journal;
 import som.SomException;
 import som.Storage;
 import som.TaskList;
@@ -9,7 +10,8 @@ import som.task.Task;
 /**
  * Represents a command to add a task to the task list.
  * <p>When executed, this command adds the specified task and confirms the addition
- * through the user interface. It also triggers an automatic save of the updated list.</p>
+ * through the user interface. It also triggers an automatic save of the updated list.
+ * In auto-sort mode the task is inserted at its place by date rather than appended.</p>
  *
  * @author Darien Tan
  */
@@ -26,8 +28,8 @@ public class AddCommand extends Command {
 
     @Override
     public String execute(TaskList tasks, Ui ui) throws SomException {
-        tasks.add(task);
-        Storage.save(tasks.getAllTasks());
+        int index = tasks.add(task);
+        Storage.append(index == tasks.size() - 1 ? Journal.add(task) : Journal.insert(index, task), tasks);
         return ui.showAdd(task, tasks.size());
     }
 
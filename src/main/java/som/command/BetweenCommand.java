@@ -0,0 +1,49 @@
+package som.command;
+
+import java.time.LocalDateTime;
+
+import som.SomException;
+import som.TaskList;
+import som.Ui;
+
+/**
+ * Represents a command to find the deadlines and events in a period of time.
+ * <p>This backs both {@code on 2025-08-11}, which covers a single day, and
+ * {@code between 2025-08-11 /to 2025-08-17}. A deadline is listed if it is due
+ * in the period, and an event if any part of it falls in the period.</p>
+ *
+ * @author Darien Tan
+ */
+public class BetweenCommand extends Command {
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    /**
+     * Constructs a BetweenCommand for the given period.
+     *
+     * @param from the start of the period, inclusive.
+     * @param to the end of the period, inclusive; must not be before from.
+     */
+    public BetweenCommand(LocalDateTime from, LocalDateTime to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public LocalDateTime getFrom() {
+        return this.from;
+    }
+
+    public LocalDateTime getTo() {
+        return this.to;
+    }
+
+    @Override
+    public String execute(TaskList tasks, Ui ui) throws SomException {
+        return ui.showPeriodResults(tasks.findBetween(from, to));
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
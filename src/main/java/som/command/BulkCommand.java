@@ -0,0 +1,77 @@
+package som.command;
+
+import java.util.List;
+
+import som.Journal;
+import som.SomException;
+import som.Storage;
+import som.TaskList;
+import som.Ui;
+import som.task.Task;
+
+/**
+ * Represents a command to mark, unmark or delete many tasks at once.
+ * <p>When executed, this command resolves its {@link Selection} against the task list,
+ * applies the action to every selected task in a single pass, and records the whole
+ * change as one journal record.</p>
+ *
+ * @author Darien Tan
+ */
+public class BulkCommand extends Command {
+    /**
+     * The change applied to each selected task.
+     */
+    public enum Action {
+        MARK, UNMARK, DELETE
+    }
+
+    private final Action action;
+    private final Selection selection;
+
+    /**
+     * Constructs a BulkCommand applying the given action to the selected tasks.
+     *
+     * @param action the change to apply.
+     * @param selection the tasks to apply it to.
+     */
+    public BulkCommand(Action action, Selection selection) {
+        this.action = action;
+        this.selection = selection;
+    }
+
+    public Action getAction() {
+        return this.action;
+    }
+
+    public Selection getSelection() {
+        return this.selection;
+    }
+
+    @Override
+    public String execute(TaskList tasks, Ui ui) throws SomException {
+        int[] positions = selection.resolve(tasks);
+        if (positions.length == 0) {
+            return ui.showNoneSelected();
+        }
+
+        switch (action) {
+        case MARK:
+            tasks.markAll(positions, true);
+            Storage.append(Journal.mark(positions), tasks);
+            return ui.showMarkedAll(positions.length);
+        case UNMARK:
+            tasks.markAll(positions, false);
+            Storage.append(Journal.unmark(positions), tasks);
+            return ui.showUnmarkedAll(positions.length);
+        default:
+            List<Task> removed = tasks.removeAll(positions);
+            Storage.append(Journal.delete(positions), tasks);
+            return ui.showDeleteAll(removed.size(), tasks.size());
+        }
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
@@ -1,5 +1,6 @@
 package som.command;
 
+import som.Journal;
 import som.SomException;
 import som.Storage;
 import som.TaskList;
@@ -15,6 +16,7 @@ import som.task.Task;
  */
 public class DeleteCommand extends Command {
     private int index;
+    private long id; // 0 if the task is named by its position
 
     /**
      * Constructs a DeleteCommand with the given task index.
@@ -25,14 +27,31 @@ public class DeleteCommand extends Command {
         this.index = index;
     }
 
+    /**
+     * Returns a DeleteCommand for the task with the given ID, e.g. from {@code delete #1234}.
+     *
+     * @param id the ID of the task to delete, see {@link som.task.Task#getId()}.
+     * @return the command.
+     */
+    public static DeleteCommand byId(long id) {
+        DeleteCommand command = new DeleteCommand(-1);
+        command.id = id;
+        return command;
+    }
+
     public int getIndex() {
         return this.index;
     }
 
+    public long getId() {
+        return this.id;
+    }
+
     @Override
     public String execute(TaskList tasks, Ui ui) throws SomException {
-        Task removed = tasks.remove(index);
-        Storage.save(tasks.getAllTasks());
+        int position = id > 0 ? tasks.indexOfId(id) : index;
+        Task removed = tasks.remove(position);
+        Storage.append(Journal.delete(position), tasks);
         return ui.showDelete(removed, tasks.size());
     }
 
@@ -2,18 +2,21 @@ package som.command;
 
 import javafx.application.Platform;
 import som.SomException;
+import som.Storage;
 import som.TaskList;
 import som.Ui;
 
 /**
  * Represents a command to exit the application.
- * <p>When executed, this command displays a goodbye message and terminates the app.</p>
+ * <p>When executed, this command waits for pending saves to reach the disk, displays a
+ * goodbye message and terminates the app.</p>
  *
  * @author Darien Tan
  */
 public class ExitCommand extends Command {
     @Override
     public String execute(TaskList tasks, Ui ui) throws SomException {
+        Storage.flush(); // nothing may be lost once the app is gone
         Platform.exit(); // Shuts down JavaFX
         return ui.showGoodbye();
     }
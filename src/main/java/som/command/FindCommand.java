@@ -1,18 +1,37 @@
 package som.command;
 
+import java.util.List;
+
 import som.SomException;
 import som.TaskList;
 import som.Ui;
+import som.task.Task;
 
 /**
  * Represents a command to find tasks of a specified keyword.
  * <p>When executed, this command searches the task list case-insensitively
- * and displays matching tasks.</p>
+ * and displays matching tasks. By default the keyword may appear anywhere in a
+ * description; in whole-word mode ({@code find -w}) only complete words match,
+ * and in fuzzy mode ({@code find~}) words with a typo or two match as well,
+ * closest first.</p>
  *
  * @author Darien Tan
  */
 public class FindCommand extends Command {
+    /**
+     * Controls how the keyword is matched against task descriptions.
+     */
+    public enum Mode {
+        /** The keyword may appear anywhere in the description. */
+        SUBSTRING,
+        /** Every word of the keyword must be a whole word of the description. */
+        WHOLE_WORD,
+        /** Every word of the keyword must be within a few edits of a word of the description. */
+        FUZZY
+    }
+
     private String keyword;
+    private Mode mode;
 
     /**
      * Constructs a FindCommand with the given date.
@@ -20,16 +39,39 @@ public class FindCommand extends Command {
      * @param keyword the keyword to search for; must not be null.
      */
     public FindCommand(String keyword) {
+        this(keyword, Mode.SUBSTRING);
+    }
+
+    /**
+     * Constructs a FindCommand with the given keyword and matching mode.
+     *
+     * @param keyword the keyword to search for; must not be null.
+     * @param mode how the keyword is matched.
+     */
+    public FindCommand(String keyword, Mode mode) {
         this.keyword = keyword;
+        this.mode = mode;
     }
 
     public String getKeyword() {
         return this.keyword;
     }
 
+    public Mode getMode() {
+        return this.mode;
+    }
+
     @Override
     public String execute(TaskList tasks, Ui ui) throws SomException {
-        return ui.showFindResults(tasks.findTasks(keyword), keyword);
+        List<Task> matches = switch (mode) {
+        case WHOLE_WORD:
+            yield tasks.findWholeWords(keyword);
+        case FUZZY:
+            yield tasks.findFuzzy(keyword);
+        default:
+            yield tasks.findTasks(keyword);
+        };
+        return ui.showFindResults(matches, keyword);
     }
 
     @Override
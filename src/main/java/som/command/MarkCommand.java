@@ -1,5 +1,6 @@
 package som.command;
 
+import som.Journal;
 import som.SomException;
 import som.Storage;
 import som.TaskList;
@@ -14,6 +15,7 @@ import som.Ui;
  */
 public class MarkCommand extends Command {
     private int index;
+    private long id; // 0 if the task is named by its position
 
     /**
      * Constructs a MarkCommand with the given task index.
@@ -24,15 +26,32 @@ public class MarkCommand extends Command {
         this.index = index;
     }
 
+    /**
+     * Returns a MarkCommand for the task with the given ID, e.g. from {@code mark #1234}.
+     *
+     * @param id the ID of the task to mark, see {@link som.task.Task#getId()}.
+     * @return the command.
+     */
+    public static MarkCommand byId(long id) {
+        MarkCommand command = new MarkCommand(-1);
+        command.id = id;
+        return command;
+    }
+
     public int getIndex() {
         return this.index;
     }
 
+    public long getId() {
+        return this.id;
+    }
+
     @Override
     public String execute(TaskList tasks, Ui ui) throws SomException {
-        tasks.mark(index);
-        Storage.save(tasks.getAllTasks());
-        return ui.showMarked(tasks.get(index));
+        int position = id > 0 ? tasks.indexOfId(id) : index;
+        tasks.mark(position);
+        Storage.append(Journal.mark(position), tasks);
+        return ui.showMarked(tasks.get(position));
     }
 
     @Override
@@ -0,0 +1,25 @@
+package som.command;
+
+import som.Metrics;
+import som.SomException;
+import som.TaskList;
+import som.Ui;
+
+/**
+ * Represents a command to display how well the caches of the chatbot are working.
+ * <p>When executed, this command shows the hits, misses and hit rate of every cache
+ * counted by {@link Metrics}.</p>
+ *
+ * @author Darien Tan
+ */
+public class MetricsCommand extends Command {
+    @Override
+    public String execute(TaskList tasks, Ui ui) throws SomException {
+        return ui.showMetrics(Metrics.getCaches());
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
@@ -0,0 +1,28 @@
+package som.command;
+
+import som.SomException;
+import som.Storage;
+import som.TaskList;
+import som.UndoHistory;
+import som.Ui;
+
+/**
+ * Represents a command to make the latest undone change again.
+ * <p>Changes can be redone in the reverse order they were undone, until a new change is made.</p>
+ * <p>Example usage: redo</p>
+ *
+ * @author Darien Tan
+ */
+public class RedoCommand extends Command {
+    @Override
+    public String execute(TaskList tasks, Ui ui) throws SomException {
+        UndoHistory.Result result = tasks.redo();
+        Storage.appendAll(result.records(), tasks);
+        return ui.showRedone(result.summary(), tasks.size());
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
@@ -0,0 +1,106 @@
+package som.command;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import som.Parser;
+import som.SomException;
+import som.Storage;
+import som.TaskList;
+import som.Ui;
+import som.task.TaskClock;
+
+/**
+ * Represents a command to run every command in a script file as one batch.
+ * <p>All lines are parsed before any of them runs; if a line cannot be parsed, nothing is
+ * run and every such line is reported. Otherwise the commands run in order, a command that
+ * fails is reported with its line number without stopping the rest, and the task list is
+ * saved once at the end instead of after every command. Blank lines and lines starting
+ * with # are ignored. The changes made by the script are undone together by a single undo.</p>
+ * <p>Example usage: run import.txt</p>
+ *
+ * @author Darien Tan
+ */
+public class RunCommand extends Command {
+    private String fileName;
+
+    /**
+     * Constructs a RunCommand for the given script file.
+     *
+     * @param fileName the path of the script, relative to the working directory.
+     */
+    public RunCommand(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getFileName() {
+        return this.fileName;
+    }
+
+    @Override
+    public String execute(TaskList tasks, Ui ui) throws SomException {
+        List<String> lines = readLines(Paths.get(fileName));
+
+        List<Integer> lineNumbers = new ArrayList<>();
+        List<Command> commands = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+        TaskClock.beginBatch(); // every date in the script is checked against the same time
+        try {
+            for (int i = 0; i < lines.size(); i++) {
+                String line = lines.get(i).trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    Command command = Parser.parse(line);
+                    if (command instanceof RunCommand || command instanceof UndoCommand
+                            || command instanceof RedoCommand || command.isExit()) {
+                        throw new SomException("'" + line + "' cannot be used in a script.");
+                    }
+                    commands.add(command);
+                    lineNumbers.add(i + 1);
+                } catch (SomException e) {
+                    failures.add("Line " + (i + 1) + ": " + e.getMessage());
+                }
+            }
+        } finally {
+            TaskClock.endBatch();
+        }
+        if (!failures.isEmpty()) {
+            return ui.showScriptErrors(fileName, failures);
+        }
+
+        Storage.beginBatch();
+        tasks.beginBatch(); // the whole script is undone in one step
+        try {
+            for (int i = 0; i < commands.size(); i++) {
+                try {
+                    commands.get(i).execute(tasks, ui);
+                } catch (SomException | RuntimeException e) {
+                    failures.add("Line " + lineNumbers.get(i) + ": " + e.getMessage());
+                }
+            }
+        } finally {
+            tasks.endBatch();
+            Storage.endBatch(tasks);
+        }
+        return ui.showScriptResults(fileName, commands.size() - failures.size(), commands.size(), failures);
+    }
+
+    private static List<String> readLines(Path path) throws SomException {
+        try {
+            return Files.readAllLines(path);
+        } catch (IOException e) {
+            throw new SomException("Could not read the script " + path + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
@@ -0,0 +1,132 @@
+package som.command;
+
+import som.SomException;
+import som.TaskList;
+
+/**
+ * Describes a set of tasks picked out by a bulk command.
+ * <p>A selection is either a list of 1-based task numbers and ranges such as {@code 3,7,19}
+ * or {@code 10-5000}, every done task ({@code done}), or every task found by a keyword
+ * ({@code find:book}). It is resolved against the task list only when the command runs,
+ * so ranges are never expanded beyond the tasks that exist.</p>
+ *
+ * @author Darien Tan
+ */
+public class Selection {
+    private static final String FIND_PREFIX = "find:";
+
+    private final int[] ranges; // inclusive 0-based (from, to) pairs, or null
+    private final boolean isDone;
+    private final String keyword;
+
+    private Selection(int[] ranges, boolean isDone, String keyword) {
+        this.ranges = ranges;
+        this.isDone = isDone;
+        this.keyword = keyword;
+    }
+
+    /**
+     * Checks whether the argument of mark, unmark or delete selects several tasks rather than one.
+     *
+     * @param argument the text after the command word.
+     * @return true if the argument is a list, a range, {@code done} or {@code find:keyword}.
+     */
+    public static boolean isSelection(String argument) {
+        String trimmed = argument.trim();
+        return trimmed.equals("done") || trimmed.startsWith(FIND_PREFIX)
+                || trimmed.indexOf(',') >= 0 || trimmed.indexOf('-', 1) >= 0;
+    }
+
+    /**
+     * Parses a selection such as {@code 3,7,19}, {@code 10-5000}, {@code done} or {@code find:book}.
+     *
+     * @param argument the text after the command word.
+     * @return the parsed selection.
+     * @throws SomException if the argument is malformed.
+     */
+    public static Selection parse(String argument) throws SomException {
+        String trimmed = argument.trim();
+        if (trimmed.equals("done")) {
+            return new Selection(null, true, null);
+        }
+        if (trimmed.startsWith(FIND_PREFIX)) {
+            String keyword = trimmed.substring(FIND_PREFIX.length()).trim();
+            if (keyword.isEmpty()) {
+                throw new SomException("Please enter a keyword after 'find:'. Example: delete find:book");
+            }
+            return new Selection(null, false, keyword);
+        }
+
+        String[] parts = trimmed.split(",");
+        int[] ranges = new int[parts.length * 2];
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i].trim();
+            int dash = part.indexOf('-', 1);
+            int from = parseNumber(dash < 0 ? part : part.substring(0, dash));
+            int to = dash < 0 ? from : parseNumber(part.substring(dash + 1));
+            if (from > to) {
+                throw new SomException("Invalid range " + part + ": the first task number must come first.");
+            }
+            ranges[2 * i] = from - 1;
+            ranges[2 * i + 1] = to - 1;
+        }
+        return new Selection(ranges, false, null);
+    }
+
+    private static int parseNumber(String text) throws SomException {
+        try {
+            int number = Integer.parseInt(text.trim());
+            if (number < 1) {
+                throw new SomException("Task numbers start from 1.");
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new SomException("Task numbers must be valid numbers, e.g. 3,7,19 or 10-50.");
+        }
+    }
+
+    /**
+     * Returns the positions of the selected tasks.
+     *
+     * @param tasks the task list to select from.
+     * @return the distinct 0-based indexes of the selected tasks, in ascending order.
+     * @throws SomException if a task number is beyond the end of the list.
+     */
+    public int[] resolve(TaskList tasks) throws SomException {
+        boolean[] isSelected = new boolean[tasks.size()];
+        if (ranges != null) {
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (ranges[i + 1] >= tasks.size()) {
+                    throw new SomException("There is no task " + (ranges[i + 1] + 1) + ". You have "
+                            + tasks.size() + " tasks in the list.");
+                }
+                for (int index = ranges[i]; index <= ranges[i + 1]; index++) {
+                    isSelected[index] = true;
+                }
+            }
+        } else if (isDone) {
+            for (int i = 0; i < tasks.size(); i++) {
+                isSelected[i] = tasks.isDone(i);
+            }
+        } else {
+            // matches like find, but by position, since tasks in a columnar list have no stable identity
+            String lowerKeyword = keyword.toLowerCase();
+            for (int i = 0; i < tasks.size(); i++) {
+                isSelected[i] = tasks.getDescription(i).toLowerCase().contains(lowerKeyword);
+            }
+        }
+
+        int count = 0;
+        for (boolean isChosen : isSelected) {
+            count += isChosen ? 1 : 0;
+        }
+        int[] selected = new int[count];
+        count = 0;
+        for (int i = 0; i < isSelected.length; i++) {
+            if (isSelected[i]) {
+                selected[count++] = i;
+            }
+        }
+        return selected;
+    }
+}
@@ -1,5 +1,8 @@
 package som.command;
 
+import som.Journal;
+import som.SomException;
+import som.Storage;
 import som.TaskList;
 import som.Ui;
 
@@ -7,14 +10,16 @@ import som.Ui;
  * Represents a command to sort tasks in the task list by date.
  * <p>When executed, this command sorts deadlines and events chronologically by their due dates or
  * start times. Todos are placed at the end of the list as they have no time component. The sorted
- * list is displayed to the user with a confirmation message.</p>
+ * list is displayed to the user with a confirmation message. The new order is persisted so that
+ * later index-based commands refer to the same tasks after a restart.</p>
  *
  * @author Darien Tan
  */
 public class SortCommand extends Command {
     @Override
-    public String execute(TaskList tasks, Ui ui) {
+    public String execute(TaskList tasks, Ui ui) throws SomException {
         tasks.sortTasks();
+        Storage.append(Journal.sort(), tasks);
         return ui.showSortedMessage();
     }
 
@@ -0,0 +1,29 @@
+package som.command;
+
+import java.time.LocalDateTime;
+
+import som.SomException;
+import som.TaskList;
+import som.Ui;
+import som.task.TaskClock;
+
+/**
+ * Represents a command to display a summary of the task list.
+ * <p>When executed, this command shows how many tasks there are of each type, how many
+ * are done, how many deadlines are overdue and how many fall due in the coming week. The
+ * figures are kept up to date by the task list, so this does not scan the tasks.</p>
+ *
+ * @author Darien Tan
+ */
+public class StatsCommand extends Command {
+    @Override
+    public String execute(TaskList tasks, Ui ui) throws SomException {
+        LocalDateTime now = TaskClock.now();
+        return ui.showStats(tasks.getStats(now), now.toLocalDate());
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
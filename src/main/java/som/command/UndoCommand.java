@@ -0,0 +1,30 @@
+package som.command;
+
+import som.SomException;
+import som.Storage;
+import som.TaskList;
+import som.UndoHistory;
+import som.Ui;
+
+/**
+ * Represents a command to undo the latest change to the task list.
+ * <p>A change is an add, mark, unmark, delete or sort, including bulk ones; the changes made
+ * by a script are undone together. Undoing a change puts back only what it changed, see
+ * {@link UndoHistory}, and the undo itself is saved like any other change.</p>
+ * <p>Example usage: undo</p>
+ *
+ * @author Darien Tan
+ */
+public class UndoCommand extends Command {
+    @Override
+    public String execute(TaskList tasks, Ui ui) throws SomException {
+        UndoHistory.Result result = tasks.undo();
+        Storage.appendAll(result.records(), tasks);
+        return ui.showUndone(result.summary(), tasks.size());
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
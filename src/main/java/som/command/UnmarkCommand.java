@@ -1,5 +1,6 @@
 package som.command;
 
+import som.Journal;
 import som.SomException;
 import som.Storage;
 import som.TaskList;
@@ -14,6 +15,7 @@ import som.Ui;
  */
 public class UnmarkCommand extends Command {
     private int index;
+    private long id; // 0 if the task is named by its position
 
     /**
      * Constructs a UnmarkCommand with the given task index.
@@ -24,15 +26,32 @@ public class UnmarkCommand extends Command {
         this.index = index;
     }
 
+    /**
+     * Returns an UnmarkCommand for the task with the given ID, e.g. from {@code unmark #1234}.
+     *
+     * @param id the ID of the task to unmark, see {@link som.task.Task#getId()}.
+     * @return the command.
+     */
+    public static UnmarkCommand byId(long id) {
+        UnmarkCommand command = new UnmarkCommand(-1);
+        command.id = id;
+        return command;
+    }
+
     public int getIndex() {
         return this.index;
     }
 
+    public long getId() {
+        return this.id;
+    }
+
     @Override
     public String execute(TaskList tasks, Ui ui) throws SomException {
-        tasks.unmark(index);
-        Storage.save(tasks.getAllTasks());
-        return ui.showUnmarked(tasks.get(index));
+        int position = id > 0 ? tasks.indexOfId(id) : index;
+        tasks.unmark(position);
+        Storage.append(Journal.unmark(position), tasks);
+        return ui.showUnmarked(tasks.get(position));
     }
 
     @Override
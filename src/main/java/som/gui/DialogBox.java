@@ -1,53 +1,81 @@
 package som.gui;
 
-import java.io.IOException;
-import java.util.Collections;
-
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Region;
 
 /**
  * Represents a dialog box consisting of an ImageView to represent the speaker's face
  * and a label containing text from the speaker.
+ * <p>The box is built in code with the same layout as /view/DialogBox.fxml and styled by
+ * dialogBox.css. Building it directly avoids parsing the FXML and reflecting on this class
+ * for every message, which is several times slower, see DialogBoxBenchmark.</p>
  */
 public class DialogBox extends HBox {
-    @FXML
-    private Label dialog;
-    @FXML
-    private ImageView displayPicture;
+    private static final String STYLESHEET = DialogBox.class.getResource("/css/dialogBox.css").toExternalForm();
+
+    private final Label dialog = new Label();
+    private final ImageView displayPicture = new ImageView();
+    private boolean isReply;
 
     private DialogBox(String text, Image img) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        dialog.setId("dialog");
+        dialog.setWrapText(true);
+        dialog.setMinHeight(Region.USE_PREF_SIZE);
+        dialog.setPadding(new Insets(6.0));
+        HBox.setMargin(dialog, new Insets(0, 7.0, 0, 7.0));
+
+        displayPicture.setId("displayPicture");
+        displayPicture.setFitHeight(99.0);
+        displayPicture.setFitWidth(99.0);
+        displayPicture.setPickOnBounds(true);
+        displayPicture.setPreserveRatio(true);
+
+        setAlignment(Pos.TOP_RIGHT);
+        setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        setPrefWidth(400.0);
+        setPadding(new Insets(15.0, 5.0, 15.0, 5.0));
+        getStylesheets().add(STYLESHEET);
+        getChildren().setAll(dialog, displayPicture);
 
         dialog.setText(text);
         displayPicture.setImage(img);
     }
 
     /**
-     * Flips the dialog box such that the ImageView is on the left and text on the right.
+     * Flips the dialog box between the user's layout, with the ImageView on the right,
+     * and Som's layout, with the ImageView on the left and text on the right.
      */
     private void flip() {
-        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-        Collections.reverse(tmp);
-        getChildren().setAll(tmp);
-        setAlignment(Pos.TOP_LEFT);
+        isReply = !isReply;
+        if (isReply) {
+            getChildren().setAll(displayPicture, dialog);
+            setAlignment(Pos.TOP_LEFT);
+            dialog.getStyleClass().add("reply-label");
+        } else {
+            getChildren().setAll(dialog, displayPicture);
+            setAlignment(Pos.TOP_RIGHT);
+            dialog.getStyleClass().remove("reply-label");
+        }
+    }
 
-        dialog.getStyleClass().add("reply-label");
+    /**
+     * Replaces the contents of the dialog box, so that one box can show many messages in turn.
+     *
+     * @param text the text of the message.
+     * @param img the picture of the speaker.
+     * @param isReply true to lay the box out as Som's reply, false as the user's message.
+     */
+    void setMessage(String text, Image img, boolean isReply) {
+        dialog.setText(text);
+        displayPicture.setImage(img);
+        if (this.isReply != isReply) {
+            flip();
+        }
     }
 
     public static DialogBox getUserDialog(String text, Image img) {
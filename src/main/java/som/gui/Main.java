@@ -8,6 +8,8 @@ import javafx.scene.Scene;
 import javafx.scene.layout.AnchorPane;
 import javafx.stage.Stage;
 import som.Som;
+import som.SomException;
+import som.Storage;
 
 /**
  * A GUI for Som using FXML.
@@ -15,6 +17,7 @@ import som.Som;
 public class Main extends Application {
 
     private Som som = new Som();
+    private MainWindow mainWindow;
 
     @Override
     public void start(Stage stage) {
@@ -26,10 +29,23 @@ public class Main extends Application {
             stage.setTitle("Som – Your Task Assistant"); // Appears in OS window bar
             stage.setMinHeight(220);
             stage.setMinWidth(417);
-            fxmlLoader.<MainWindow>getController().setSom(som); // inject the Som instance
+            mainWindow = fxmlLoader.getController();
+            mainWindow.setSom(som); // inject the Som instance
             stage.show();
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    @Override
+    public void stop() {
+        if (mainWindow != null) {
+            mainWindow.shutdown(); // let commands still running finish first
+        }
+        try {
+            Storage.flush(); // the window may be closed without typing bye
+        } catch (SomException e) {
+            System.out.println(e.getMessage());
+        }
+    }
 }
@@ -1,54 +1,118 @@
 package som.gui;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 import som.Som;
 
 /**
  * Controller for the main GUI.
+ * <p>The conversation is kept as a list of {@link Message} records shown in a virtualized
+ * {@link ListView}, which only lays out the messages on screen, so a long session stays
+ * as responsive as a short one.</p>
+ * <p>Commands run on a single background thread, one at a time in the order they were
+ * entered, so saving and searching large lists never freezes the window. Each reply is
+ * shown as a placeholder until its command finishes, and a busy indicator spins while
+ * any command is still running.</p>
+ * <p>Reminders of upcoming deadlines and events are appended to the conversation as they
+ * fall due.</p>
  */
 public class MainWindow extends AnchorPane {
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<Message> dialogList;
     @FXML
     private TextField userInput;
     @FXML
     private Button sendButton;
+    @FXML
+    private ProgressIndicator busyIndicator;
 
     private Som som;
+    private final ObservableList<Message> messages = FXCollections.observableArrayList();
+    private final ExecutorService commandExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "som-commands");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private int pendingCommands;
 
     private Image userImage = new Image(this.getClass().getResourceAsStream("/images/DaUser1.png"));
     private Image somImage = new Image(this.getClass().getResourceAsStream("/images/DaSom.jpg"));
 
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        dialogList.setItems(messages);
+        dialogList.setCellFactory(list -> new MessageCell(list, userImage, somImage));
     }
 
-    /** Injects the Som instance */
+    /** Injects the Som instance and starts its reminders */
     public void setSom(Som s) {
         som = s;
+        som.startReminders(this::showReminder);
+    }
+
+    /**
+     * Waits for the commands already entered to finish, so their changes are saved before the app exits.
+     */
+    public void shutdown() {
+        if (som != null) {
+            som.stopReminders();
+        }
+        commandExecutor.shutdown();
+        try {
+            commandExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Som's reply and then appends them to
-     * the dialog container. Clears the user input after processing.
+     * Appends two messages to the chat history, one echoing user input and a placeholder for Som's reply,
+     * and runs the command in the background. The placeholder is replaced once the reply is ready.
+     * Clears the user input right away so the next command can be typed.
      */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText();
-        String response = som.getResponse(input);
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input, userImage),
-                DialogBox.getSomDialog(response, somImage)
-        );
         userInput.clear();
+        messages.addAll(new Message(input, true), new Message("...", false));
+        int replyIndex = messages.size() - 1;
+        dialogList.scrollTo(replyIndex);
+        setPendingCommands(pendingCommands + 1);
+
+        commandExecutor.execute(() -> {
+            String response = som.getResponse(input);
+            Platform.runLater(() -> {
+                messages.set(replyIndex, new Message(response, false));
+                dialogList.scrollTo(messages.size() - 1);
+                setPendingCommands(pendingCommands - 1);
+            });
+        });
+    }
+
+    /**
+     * Appends a reminder to the chat history; may be called from any thread.
+     */
+    private void showReminder(String text) {
+        Platform.runLater(() -> {
+            messages.add(new Message(text, false));
+            dialogList.scrollTo(messages.size() - 1);
+        });
+    }
+
+    private void setPendingCommands(int count) {
+        pendingCommands = count;
+        busyIndicator.setVisible(count > 0);
     }
 }
@@ -0,0 +1,12 @@
+package som.gui;
+
+/**
+ * Represents one message of the conversation shown in the main window.
+ * <p>The chat history is kept as a list of these plain records; dialog boxes are only
+ * created for the few messages on screen, see {@link MessageCell}.</p>
+ *
+ * @param text the text of the message.
+ * @param isFromUser true if the user typed the message, false if it is Som's reply.
+ */
+public record Message(String text, boolean isFromUser) {
+}
@@ -0,0 +1,49 @@
+package som.gui;
+
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.image.Image;
+
+/**
+ * Displays a {@link Message} of the chat history in a {@link DialogBox}.
+ * <p>The list view only creates enough cells to fill the window and reuses them as the
+ * user scrolls, so each cell keeps a single dialog box and refills it with whichever
+ * message it is asked to show.</p>
+ */
+class MessageCell extends ListCell<Message> {
+    private final DialogBox dialogBox;
+    private final Image userImage;
+    private final Image somImage;
+
+    /**
+     * Constructs a cell for the given chat list.
+     *
+     * @param listView the list view the cell belongs to.
+     * @param userImage the picture shown next to the user's messages.
+     * @param somImage the picture shown next to Som's replies.
+     */
+    MessageCell(ListView<Message> listView, Image userImage, Image somImage) {
+        this.userImage = userImage;
+        this.somImage = somImage;
+        this.dialogBox = DialogBox.getUserDialog("", userImage);
+        // Let the text wrap at the width of the list instead of widening the cell
+        setPrefWidth(0);
+        dialogBox.maxWidthProperty().bind(listView.widthProperty().subtract(20));
+    }
+
+    @Override
+    protected void updateItem(Message message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        setText(null);
+        if (isEmpty || message == null) {
+            setGraphic(null);
+            return;
+        }
+        if (message.isFromUser()) {
+            dialogBox.setMessage(message.text(), userImage, false);
+        } else {
+            dialogBox.setMessage(message.text(), somImage, true);
+        }
+        setGraphic(dialogBox);
+    }
+}
@@ -0,0 +1,118 @@
+package som.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A Burkhard-Keller tree of words for finding all words within an edit distance of a query.
+ * <p>Each child is filed under its Levenshtein distance to the parent. By the triangle
+ * inequality, a word within distance k of the query can only sit under children whose
+ * distance lies within k of the query's distance to the parent, so most of the tree is
+ * never visited.</p>
+ * <p>Words are never removed; the caller ignores words that no longer match any task.</p>
+ *
+ * @author Darien Tan
+ */
+public class BkTree {
+    private final Set<String> words = new HashSet<>();
+    private Node root;
+
+    /**
+     * Adds a word to the tree, unless it is already present.
+     *
+     * @param word the word to add.
+     */
+    public void add(String word) {
+        if (!words.add(word)) {
+            return;
+        }
+        if (root == null) {
+            root = new Node(word);
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = distance(word, node.word);
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(word));
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Returns every word within the given edit distance of the query.
+     *
+     * @param query the word to look for.
+     * @param maxDistance the largest edit distance to accept.
+     * @return the matching words with their distances, in no particular order.
+     */
+    public List<Match> search(String query, int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+        if (root == null) {
+            return matches;
+        }
+        List<Node> pending = new ArrayList<>();
+        pending.add(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.remove(pending.size() - 1);
+            int distance = distance(query, node.word);
+            if (distance <= maxDistance) {
+                matches.add(new Match(node.word, distance));
+            }
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                    pending.add(child.getValue());
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the Levenshtein distance between two words.
+     *
+     * @param a the first word.
+     * @param b the second word.
+     * @return the least number of single-character insertions, deletions and substitutions turning a into b.
+     */
+    public static int distance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * A word found by {@link #search(String, int)} and its distance to the query.
+     */
+    public record Match(String word, int distance) {
+    }
+
+    private static class Node {
+        private final String word;
+        private final Map<Integer, Node> children = new HashMap<>();
+
+        Node(String word) {
+            this.word = word;
+        }
+    }
+}
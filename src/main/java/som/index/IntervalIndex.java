@@ -0,0 +1,232 @@
+package som.index;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import som.task.DateTimes;
+import som.task.Task;
+
+/**
+ * Keeps deadlines and events in an interval tree for date-range queries.
+ * <p>Each timed task is the interval from {@link Task#getStartTime()} to {@link Task#getEndTime()};
+ * a deadline is a single point in time. The intervals form a binary search tree ordered by
+ * start time, where every node also records the latest end time in its subtree. A query
+ * skips any subtree ending before the range and stops at the first start after it, so it
+ * runs in O(log n + k) for k matches on average. Todos have no time and are not indexed.</p>
+ * <p>The tree is a treap: random node priorities keep it balanced on average whatever order
+ * the tasks arrive in.</p>
+ * <p>Tasks starting together are listed in list order, so a task put back into the middle of
+ * the list, e.g. when a delete is undone, is placed by its position among any other tasks
+ * starting at the same time. If there are any, the tree is rebuilt from the list on the next
+ * query instead; until then changes are ignored.</p>
+ *
+ * @author Darien Tan
+ */
+public class IntervalIndex implements TaskIndex {
+    private final Map<Task, Node> nodes = new IdentityHashMap<>();
+    private final Random random = new Random();
+    private Node root;
+    private long nextSequence;
+    private List<Task> pendingRebuild;
+
+    @Override
+    public void add(Task task) {
+        LocalDateTime start = task.getStartTime();
+        if (start == null || pendingRebuild != null) {
+            return;
+        }
+        remove(task);
+        Node node = new Node(task, DateTimes.toEpochMinute(start), DateTimes.toEpochMinute(task.getEndTime()),
+                nextSequence++, random.nextInt());
+        nodes.put(task, node);
+        root = insert(root, node);
+    }
+
+    @Override
+    public void restored(Task task, List<Task> tasks) {
+        LocalDateTime start = task.getStartTime();
+        if (start == null || pendingRebuild != null) {
+            return;
+        }
+        if (tasks.get(tasks.size() - 1) == task || !startsAt(root, DateTimes.toEpochMinute(start))) {
+            add(task); // no task starting at the same time comes after it in the list
+        } else {
+            pendingRebuild = tasks;
+        }
+    }
+
+    @Override
+    public void remove(Task task) {
+        if (pendingRebuild != null) {
+            return;
+        }
+        Node node = nodes.remove(task);
+        if (node != null) {
+            root = delete(root, node);
+        }
+    }
+
+    @Override
+    public void rebuild(List<Task> tasks) {
+        pendingRebuild = null;
+        nodes.clear();
+        root = null;
+        nextSequence = 0;
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    @Override
+    public void sorted(List<Task> tasks) {
+        // sorting the list keeps tasks with equal start times in sequence order, so the tree stays valid
+    }
+
+    /**
+     * Returns the timed tasks overlapping the given range, both ends included.
+     *
+     * @param from the start of the range.
+     * @param to the end of the range.
+     * @return the matching tasks ordered by start time, tasks starting together in list order.
+     */
+    public List<Task> find(LocalDateTime from, LocalDateTime to) {
+        if (pendingRebuild != null) {
+            rebuild(pendingRebuild);
+        }
+        List<Task> matches = new ArrayList<>();
+        collect(root, DateTimes.toEpochMinute(from), DateTimes.toEpochMinute(to), matches);
+        return matches;
+    }
+
+    private static void collect(Node node, long from, long to, List<Task> matches) {
+        if (node == null || node.maxEnd < from) {
+            return;
+        }
+        collect(node.left, from, to, matches);
+        if (node.start > to) {
+            return; // everything to the right starts even later
+        }
+        if (node.end >= from) {
+            matches.add(node.task);
+        }
+        collect(node.right, from, to, matches);
+    }
+
+    private static boolean startsAt(Node node, long minute) {
+        while (node != null && node.start != minute) {
+            node = minute < node.start ? node.left : node.right;
+        }
+        return node != null;
+    }
+
+    private static Node insert(Node root, Node node) {
+        if (root == null) {
+            return node;
+        }
+        if (node.isBefore(root)) {
+            root.left = insert(root.left, node);
+            if (root.left.priority > root.priority) {
+                root = rotateRight(root);
+            }
+        } else {
+            root.right = insert(root.right, node);
+            if (root.right.priority > root.priority) {
+                root = rotateLeft(root);
+            }
+        }
+        root.update();
+        return root;
+    }
+
+    private static Node delete(Node root, Node node) {
+        if (root == node) {
+            return merge(root.left, root.right);
+        }
+        if (node.isBefore(root)) {
+            root.left = delete(root.left, node);
+        } else {
+            root.right = delete(root.right, node);
+        }
+        root.update();
+        return root;
+    }
+
+    /**
+     * Joins two treaps where every node of the first comes before every node of the second.
+     */
+    private static Node merge(Node first, Node second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        if (first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            first.update();
+            return first;
+        }
+        second.left = merge(first, second.left);
+        second.update();
+        return second;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        node.update();
+        left.right = node;
+        left.update();
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        node.update();
+        right.left = node;
+        right.update();
+        return right;
+    }
+
+    private static class Node {
+        private final Task task;
+        private final long start;
+        private final long end;
+        private final long sequence;
+        private final int priority;
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(Task task, long start, long end, long sequence, int priority) {
+            this.task = task;
+            this.start = start;
+            this.end = end;
+            this.sequence = sequence;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        /**
+         * Orders nodes by start time, then by the order they were added.
+         */
+        boolean isBefore(Node other) {
+            return start != other.start ? start < other.start : sequence < other.sequence;
+        }
+
+        void update() {
+            maxEnd = end;
+            if (left != null) {
+                maxEnd = Math.max(maxEnd, left.maxEnd);
+            }
+            if (right != null) {
+                maxEnd = Math.max(maxEnd, right.maxEnd);
+            }
+        }
+    }
+}
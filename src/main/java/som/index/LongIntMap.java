@@ -0,0 +1,164 @@
+package som.index;
+
+import java.util.Arrays;
+
+/**
+ * Maps positive long keys to int values in two primitive arrays, without boxing.
+ * <p>Keys are stored by open addressing with linear probing in a power-of-two table. A
+ * removed key leaves a tombstone, so the probe sequences of other keys stay intact and
+ * removal takes O(1) time like lookup and insertion. Tombstones are reused by later
+ * insertions; once live keys and tombstones together fill half the table it is rebuilt,
+ * twice as large if the live keys alone fill a quarter of it and otherwise at the same
+ * size, which clears every tombstone.</p>
+ *
+ * @author Darien Tan
+ */
+public class LongIntMap {
+    /** Returned by {@link #get(long)} and {@link #remove(long)} for a missing key. */
+    public static final int MISSING = -1;
+
+    private static final long EMPTY = 0;
+    private static final long TOMBSTONE = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int tombstones;
+
+    /**
+     * Constructs an empty map.
+     */
+    public LongIntMap() {
+        this(0);
+    }
+
+    /**
+     * Constructs an empty map with room for the given number of keys before it grows.
+     *
+     * @param expectedSize the number of keys expected.
+     */
+    public LongIntMap(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2L) {
+            capacity <<= 1;
+        }
+        keys = new long[capacity];
+        values = new int[capacity];
+    }
+
+    /**
+     * Returns the number of keys in the map.
+     *
+     * @return the number of live keys.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value mapped to a key.
+     *
+     * @param key the key, greater than 0.
+     * @return the value, or {@link #MISSING} if the key is not in the map.
+     */
+    public int get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slotOf(key, mask); keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return MISSING;
+    }
+
+    /**
+     * Maps a key to a value, replacing any value it had.
+     *
+     * @param key the key, greater than 0.
+     * @param value the value to map it to.
+     */
+    public void put(long key, int value) {
+        assert key > 0 : "Keys must be positive";
+        int mask = keys.length - 1;
+        int free = -1;
+        int slot = slotOf(key, mask);
+        for (; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            if (free < 0 && keys[slot] == TOMBSTONE) {
+                free = slot;
+            }
+        }
+        if (free >= 0) {
+            tombstones--;
+            slot = free;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if ((size + tombstones) * 2 > keys.length) {
+            rehash(size * 4 > keys.length ? keys.length * 2 : keys.length);
+        }
+    }
+
+    /**
+     * Removes a key, leaving a tombstone in its slot.
+     *
+     * @param key the key to remove.
+     * @return the value it was mapped to, or {@link #MISSING} if the key was not in the map.
+     */
+    public int remove(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slotOf(key, mask); keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                keys[slot] = TOMBSTONE;
+                size--;
+                tombstones++;
+                return values[slot];
+            }
+        }
+        return MISSING;
+    }
+
+    /**
+     * Removes every key.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        tombstones = 0;
+    }
+
+    /**
+     * Copies the live keys into a new table of the given capacity, dropping the tombstones.
+     */
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        tombstones = 0;
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY && key != TOMBSTONE) {
+                int slot = slotOf(key, mask);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Spreads the key's bits with a Fibonacci hash, so consecutive keys do not form long probe runs.
+     */
+    private static int slotOf(long key, int mask) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+}
@@ -0,0 +1,195 @@
+package som.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import som.task.Task;
+
+/**
+ * Maps keys derived from task descriptions to posting lists of the tasks holding them.
+ * <p>Each posting list keeps its tasks in list order. Removed tasks are only marked as
+ * removed and purged from the posting lists once they outnumber the live tasks, so
+ * removal does not depend on the size of the list. A removed task that is restored before
+ * it is purged, e.g. by undo, simply stops being marked.</p>
+ * <p>Sorting the list changes the order of every posting list, so instead of rebuilding
+ * right away the index remembers the list and rebuilds from it on the next query. A run
+ * of sorts and changes without queries in between then costs a single rebuild.</p>
+ *
+ * @param <K> the type of key, e.g. a word.
+ * @author Darien Tan
+ */
+abstract class PostingIndex<K> implements TaskIndex {
+    private final Map<K, List<Task>> postings = new HashMap<>();
+    private final Set<Task> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int size;
+    private List<Task> pendingRebuild;
+
+    /**
+     * Returns the distinct keys a task is filed under.
+     *
+     * @param task the task to index.
+     * @return the keys of the task.
+     */
+    protected abstract Collection<K> keysOf(Task task);
+
+    /**
+     * Called when a task is filed under a key that has no posting list yet.
+     *
+     * @param key the new key.
+     */
+    protected void keyAdded(K key) {
+    }
+
+    @Override
+    public void add(Task task) {
+        if (pendingRebuild != null) {
+            return; // the task is picked up by the pending rebuild
+        }
+        if (removed.contains(task)) {
+            purge(); // the task is re-added, so its stale postings must go first
+        }
+        for (K key : keysOf(task)) {
+            postings.computeIfAbsent(key, k -> {
+                keyAdded(k);
+                return new ArrayList<>();
+            }).add(task);
+        }
+        size++;
+    }
+
+    @Override
+    public void insertSorted(Task task) {
+        if (pendingRebuild != null) {
+            return;
+        }
+        if (removed.contains(task)) {
+            purge();
+        }
+        for (K key : keysOf(task)) {
+            List<Task> posting = postings.computeIfAbsent(key, k -> {
+                keyAdded(k);
+                return new ArrayList<>();
+            });
+            posting.add(upperBound(posting, task), task);
+        }
+        size++;
+    }
+
+    /**
+     * Returns the index after the last task in a date-sorted posting list not later than the given task.
+     */
+    private static int upperBound(List<Task> posting, Task task) {
+        int low = 0;
+        int high = posting.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (posting.get(mid).compareTo(task) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public void restored(Task task, List<Task> tasks) {
+        if (pendingRebuild != null) {
+            return;
+        }
+        if (removed.remove(task)) {
+            size++; // its postings are still in place, as the task was not purged yet
+        } else {
+            pendingRebuild = tasks; // its place in each posting list depends on its position
+        }
+    }
+
+    @Override
+    public void remove(Task task) {
+        if (pendingRebuild != null) {
+            return;
+        }
+        removed.add(task);
+        size--;
+        if (removed.size() > size) {
+            purge();
+        }
+    }
+
+    @Override
+    public void rebuild(List<Task> tasks) {
+        pendingRebuild = null;
+        postings.clear();
+        removed.clear();
+        size = 0;
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    @Override
+    public void sorted(List<Task> tasks) {
+        pendingRebuild = tasks;
+    }
+
+    /**
+     * Rebuilds the index if the list was sorted since the last query.
+     */
+    private void refresh() {
+        if (pendingRebuild != null) {
+            rebuild(pendingRebuild);
+        }
+    }
+
+    /**
+     * Returns the shortest posting list among the given keys.
+     * <p>The list may still hold removed tasks; check them with {@link #isRemoved(Task)}.</p>
+     *
+     * @param keys the keys to look up.
+     * @return the shortest posting list, or an empty list if any key is not indexed or there are no keys.
+     */
+    protected List<Task> shortestPosting(Collection<K> keys) {
+        refresh();
+        List<Task> shortest = null;
+        for (K key : keys) {
+            List<Task> posting = postings.get(key);
+            if (posting == null) {
+                return List.of();
+            }
+            if (shortest == null || posting.size() < shortest.size()) {
+                shortest = posting;
+            }
+        }
+        return shortest == null ? List.of() : shortest;
+    }
+
+    /**
+     * Returns the posting list of a key.
+     * <p>The list may still hold removed tasks; check them with {@link #isRemoved(Task)}.</p>
+     *
+     * @param key the key to look up.
+     * @return the tasks filed under the key, in list order.
+     */
+    protected List<Task> posting(K key) {
+        refresh();
+        return postings.getOrDefault(key, List.of());
+    }
+
+    protected boolean isRemoved(Task task) {
+        return removed.contains(task);
+    }
+
+    private void purge() {
+        postings.values().removeIf(posting -> {
+            posting.removeIf(removed::contains);
+            return posting.isEmpty();
+        });
+        removed.clear();
+    }
+}
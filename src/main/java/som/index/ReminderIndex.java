@@ -0,0 +1,108 @@
+package som.index;
+
+import java.time.LocalDateTime;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import som.task.DateTimes;
+import som.task.Task;
+import som.task.TaskClock;
+
+/**
+ * Schedules a reminder for every pending deadline and event in a {@link TimingWheel}.
+ * <p>A reminder is due a fixed number of minutes before {@link Task#getStartTime()}, that
+ * is before a deadline's due time or an event's start. Only tasks that are not done and
+ * have not started yet are scheduled; a task added within the lead time is reminded of
+ * straight away. Adding, removing, marking and unmarking a task each schedule or cancel one
+ * timer in O(1) time, so the index can follow lists of a million tasks, and rebuilding it
+ * at startup is a single pass.</p>
+ * <p>The index is read by a ticker thread while commands change the list, so every method
+ * is synchronized.</p>
+ *
+ * @author Darien Tan
+ */
+public class ReminderIndex implements TaskIndex {
+    private final long leadMinutes;
+    private Map<Task, TimingWheel.Timer<Task>> timers = new IdentityHashMap<>();
+    private TimingWheel<Task> wheel = new TimingWheel<>(0);
+
+    /**
+     * Constructs an index reminding of tasks the given number of minutes before they start.
+     *
+     * @param leadMinutes how long before its start time a task is reminded of.
+     */
+    public ReminderIndex(long leadMinutes) {
+        this.leadMinutes = leadMinutes;
+    }
+
+    @Override
+    public synchronized void add(Task task) {
+        LocalDateTime start = task.getStartTime();
+        if (start == null || task.isDone()) {
+            return;
+        }
+        long startMinute = DateTimes.toEpochMinute(start);
+        if (startMinute <= wheel.getCurrent()) {
+            return;
+        }
+        TimingWheel.Timer<Task> previous = timers.put(task, wheel.schedule(startMinute - leadMinutes, task));
+        if (previous != null) {
+            wheel.cancel(previous);
+        }
+    }
+
+    @Override
+    public synchronized void remove(Task task) {
+        TimingWheel.Timer<Task> timer = timers.remove(task);
+        if (timer != null) {
+            wheel.cancel(timer);
+        }
+    }
+
+    @Override
+    public synchronized void doneChanged(Task task) {
+        if (task.isDone()) {
+            remove(task);
+        } else {
+            add(task);
+        }
+    }
+
+    @Override
+    public synchronized void rebuild(List<Task> tasks) {
+        timers = new IdentityHashMap<>(tasks.size());
+        wheel = new TimingWheel<>(DateTimes.toEpochMinute(TaskClock.now()));
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    @Override
+    public void sorted(List<Task> tasks) {
+        // reminders do not depend on list order
+    }
+
+    /**
+     * Returns the tasks whose reminders have fallen due since the last call, forgetting their reminders.
+     *
+     * @param now the current time, see {@link TaskClock#now()}.
+     * @return the tasks to remind of, earliest reminder first.
+     */
+    public synchronized List<Task> takeDue(LocalDateTime now) {
+        List<Task> due = wheel.advanceTo(DateTimes.toEpochMinute(now));
+        for (Task task : due) {
+            timers.remove(task);
+        }
+        return due;
+    }
+
+    /**
+     * Returns the number of reminders still to come.
+     *
+     * @return the number of scheduled reminders.
+     */
+    public synchronized int size() {
+        return wheel.size();
+    }
+}
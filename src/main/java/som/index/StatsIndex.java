@@ -0,0 +1,191 @@
+package som.index;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import som.task.DateTimes;
+import som.task.Deadline;
+import som.task.Event;
+import som.task.Task;
+
+/**
+ * Keeps running totals of the task list so that summary statistics need no scan.
+ * <p>Counts of tasks by type and status are adjusted as tasks are added, removed, marked
+ * and unmarked. The due times of pending deadlines are kept as a histogram of epoch
+ * minutes, split at the last time asked about into an overdue part and an upcoming part.
+ * Asking again later moves only the deadlines that fell due in between, so each deadline
+ * crosses the split once as time goes on and the overdue count is always at hand.</p>
+ * <p>The index holds no references to tasks, only their values, so it also works with a
+ * columnar list whose tasks are rebuilt on every access.</p>
+ *
+ * @author Darien Tan
+ */
+public class StatsIndex implements TaskIndex {
+    /** The number of days, starting today, counted as due this week. */
+    public static final int WEEK_DAYS = 7;
+    private static final long MINUTES_PER_DAY = 24 * 60;
+
+    private final NavigableMap<Long, Integer> overdue = new TreeMap<>();
+    private final NavigableMap<Long, Integer> upcoming = new TreeMap<>();
+    private long split = Long.MIN_VALUE; // deadlines due before this epoch minute are in overdue
+    private int overdueCount;
+    private int taskCount;
+    private int doneCount;
+    private int deadlineCount;
+    private int eventCount;
+
+    @Override
+    public void add(Task task) {
+        taskCount++;
+        if (task instanceof Deadline) {
+            deadlineCount++;
+        } else if (task instanceof Event) {
+            eventCount++;
+        }
+        if (task.isDone()) {
+            doneCount++;
+        } else {
+            addPending(task);
+        }
+    }
+
+    @Override
+    public void remove(Task task) {
+        taskCount--;
+        if (task instanceof Deadline) {
+            deadlineCount--;
+        } else if (task instanceof Event) {
+            eventCount--;
+        }
+        if (task.isDone()) {
+            doneCount--;
+        } else {
+            removePending(task);
+        }
+    }
+
+    @Override
+    public void doneChanged(Task task) {
+        if (task.isDone()) {
+            doneCount++;
+            removePending(task);
+        } else {
+            doneCount--;
+            addPending(task);
+        }
+    }
+
+    @Override
+    public void rebuild(List<Task> tasks) {
+        overdue.clear();
+        upcoming.clear();
+        split = Long.MIN_VALUE;
+        overdueCount = 0;
+        taskCount = 0;
+        doneCount = 0;
+        deadlineCount = 0;
+        eventCount = 0;
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    @Override
+    public void sorted(List<Task> tasks) {
+        // the totals do not depend on the order of the list
+    }
+
+    /**
+     * Returns the statistics of the list at the given time.
+     * <p>Takes O(log n) time for each deadline that fell due, or stopped being due, since the
+     * previous call, plus one step for each distinct due time in the coming week.</p>
+     *
+     * @param now the current time.
+     * @return the statistics.
+     */
+    public Stats getStats(LocalDateTime now) {
+        long minute = DateTimes.toEpochMinute(now);
+        moveSplit(minute);
+
+        long today = Math.floorDiv(minute, MINUTES_PER_DAY) * MINUTES_PER_DAY;
+        int[] dueByDay = new int[WEEK_DAYS];
+        int dueThisWeek = 0;
+        for (Map.Entry<Long, Integer> entry : upcoming.headMap(today + WEEK_DAYS * MINUTES_PER_DAY, false).entrySet()) {
+            dueByDay[(int) ((entry.getKey() - today) / MINUTES_PER_DAY)] += entry.getValue();
+            dueThisWeek += entry.getValue();
+        }
+        return new Stats(taskCount, doneCount, taskCount - deadlineCount - eventCount, deadlineCount, eventCount,
+                overdueCount, dueThisWeek, dueByDay);
+    }
+
+    /**
+     * Moves the split between overdue and upcoming deadlines to the given minute, in either direction.
+     */
+    private void moveSplit(long minute) {
+        while (!upcoming.isEmpty() && upcoming.firstKey() < minute) {
+            Map.Entry<Long, Integer> first = upcoming.pollFirstEntry();
+            overdue.put(first.getKey(), first.getValue());
+            overdueCount += first.getValue();
+        }
+        while (!overdue.isEmpty() && overdue.lastKey() >= minute) {
+            Map.Entry<Long, Integer> last = overdue.pollLastEntry();
+            upcoming.put(last.getKey(), last.getValue());
+            overdueCount -= last.getValue();
+        }
+        split = minute;
+    }
+
+    private void addPending(Task task) {
+        if (!(task instanceof Deadline deadline)) {
+            return;
+        }
+        long due = DateTimes.toEpochMinute(deadline.getBy());
+        if (due < split) {
+            overdue.merge(due, 1, Integer::sum);
+            overdueCount++;
+        } else {
+            upcoming.merge(due, 1, Integer::sum);
+        }
+    }
+
+    private void removePending(Task task) {
+        if (!(task instanceof Deadline deadline)) {
+            return;
+        }
+        long due = DateTimes.toEpochMinute(deadline.getBy());
+        NavigableMap<Long, Integer> side = due < split ? overdue : upcoming;
+        if (side.merge(due, -1, Integer::sum) == 0) {
+            side.remove(due);
+        }
+        if (side == overdue) {
+            overdueCount--;
+        }
+    }
+
+    /**
+     * A summary of the task list at one point in time.
+     *
+     * @param total the number of tasks.
+     * @param done the number of tasks marked as done.
+     * @param todos the number of todos.
+     * @param deadlines the number of deadlines.
+     * @param events the number of events.
+     * @param overdue the number of pending deadlines that are past due.
+     * @param dueThisWeek the number of pending deadlines due from now until the end of the seventh day.
+     * @param dueByDay the pending deadlines due on each of those days, today first.
+     */
+    public record Stats(int total, int done, int todos, int deadlines, int events, int overdue, int dueThisWeek,
+            int[] dueByDay) {
+        /**
+         * Returns the number of tasks not yet done.
+         *
+         * @return the number of pending tasks.
+         */
+        public int pending() {
+            return total - done;
+        }
+    }
+}
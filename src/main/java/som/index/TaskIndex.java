@@ -0,0 +1,80 @@
+package som.index;
+
+import java.util.List;
+
+import som.task.Task;
+
+/**
+ * Defines a secondary structure kept in step with a {@link som.TaskList}.
+ * <p>The task list notifies each of its indexes when a task is added or removed,
+ * when a task is marked or unmarked, and when the list is sorted. Indexes answer queries that
+ * would otherwise need a scan over every task.</p>
+ *
+ * @author Darien Tan
+ */
+public interface TaskIndex {
+    /**
+     * Indexes a task appended to the end of the list.
+     *
+     * @param task the added task.
+     */
+    void add(Task task);
+
+    /**
+     * Indexes a task inserted into a list kept sorted by date, after any task with an equal time.
+     * <p>Indexes that do not depend on list order can treat this like {@link #add(Task)},
+     * which is the default.</p>
+     *
+     * @param task the inserted task.
+     */
+    default void insertSorted(Task task) {
+        add(task);
+    }
+
+    /**
+     * Indexes a task put back at the position it was removed from, e.g. when a delete is undone.
+     * <p>The list is otherwise exactly as it was before the task was removed. Indexes that do
+     * not depend on list order can treat this like {@link #add(Task)}, which is the default.</p>
+     *
+     * @param task the restored task.
+     * @param tasks every task in the list, in list order, the restored task included.
+     */
+    default void restored(Task task, List<Task> tasks) {
+        add(task);
+    }
+
+    /**
+     * Forgets a task removed from the list.
+     *
+     * @param task the removed task.
+     */
+    void remove(Task task);
+
+    /**
+     * Updates the index after a task was marked as done or not done.
+     * <p>Called only when the done status actually changed. Indexes that do not depend on
+     * it can ignore this, which is the default.</p>
+     *
+     * @param task the task, already holding its new status.
+     */
+    default void doneChanged(Task task) {
+    }
+
+    /**
+     * Discards the index and rebuilds it from the given tasks.
+     *
+     * @param tasks every task in the list, in list order.
+     */
+    void rebuild(List<Task> tasks);
+
+    /**
+     * Updates the index after the list was sorted by date, see {@link Task#compareTo(Task)},
+     * or put back in the order it had before a sort.
+     * <p>Either way tasks with equal times keep their relative order. By default the index is rebuilt.</p>
+     *
+     * @param tasks every task in the list, in the new order.
+     */
+    default void sorted(List<Task> tasks) {
+        rebuild(tasks);
+    }
+}
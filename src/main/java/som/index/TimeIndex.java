@@ -0,0 +1,126 @@
+package som.index;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import som.task.DateTimes;
+import som.task.Task;
+
+/**
+ * Keeps deadlines and events ordered by date so the list can be sorted without comparisons.
+ * <p>Each timed task is filed in a red-black tree under a single long packing its
+ * {@link Task#getStartTime()} in epoch minutes above a sequence number counting the tasks
+ * added so far. Keys therefore order tasks by time and, among equal times, by the order
+ * they were added, which matches the list order, so walking the tree gives the same
+ * order as a stable sort. Todos have no time and are not indexed.</p>
+ * <p>A task put back into the middle of the list, e.g. when a delete is undone, must be
+ * ordered by its position among any other tasks at the same time. If there are any, the
+ * index is rebuilt from the list on the next sort instead; until then changes are ignored.</p>
+ *
+ * @author Darien Tan
+ */
+public class TimeIndex implements TaskIndex {
+    private static final int SEQUENCE_BITS = 24;
+    private static final long MAX_SEQUENCE = 1L << SEQUENCE_BITS;
+
+    private final TreeMap<Long, Task> order = new TreeMap<>();
+    private final Map<Task, Long> keys = new IdentityHashMap<>();
+    private long nextSequence;
+    private List<Task> pendingRebuild;
+
+    @Override
+    public void add(Task task) {
+        LocalDateTime start = task.getStartTime();
+        if (start == null || pendingRebuild != null) {
+            return;
+        }
+        remove(task);
+        if (nextSequence == MAX_SEQUENCE) {
+            renumber();
+        }
+        long key = DateTimes.toEpochMinute(start) << SEQUENCE_BITS | nextSequence++;
+        order.put(key, task);
+        keys.put(task, key);
+    }
+
+    @Override
+    public void restored(Task task, List<Task> tasks) {
+        LocalDateTime start = task.getStartTime();
+        if (start == null || pendingRebuild != null) {
+            return;
+        }
+        long minute = DateTimes.toEpochMinute(start);
+        if (tasks.get(tasks.size() - 1) == task
+                || order.subMap(minute << SEQUENCE_BITS, (minute + 1) << SEQUENCE_BITS).isEmpty()) {
+            add(task); // no task at the same time comes after it in the list
+        } else {
+            pendingRebuild = tasks;
+        }
+    }
+
+    @Override
+    public void remove(Task task) {
+        if (pendingRebuild != null) {
+            return;
+        }
+        Long key = keys.remove(task);
+        if (key != null) {
+            order.remove(key);
+        }
+    }
+
+    @Override
+    public void rebuild(List<Task> tasks) {
+        pendingRebuild = null;
+        order.clear();
+        keys.clear();
+        nextSequence = 0;
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    @Override
+    public void sorted(List<Task> tasks) {
+        // sorting the list keeps tasks with equal times in sequence order, so every key stays valid
+    }
+
+    /**
+     * Returns the tasks in the order {@link java.util.Collections#sort(List)} would put them in.
+     * <p>Deadlines and events come first, by date, followed by the todos in their current order.
+     * This walks the tree and the list once each, so it takes O(n) time.</p>
+     *
+     * @param tasks every task in the list, in list order.
+     * @return a new list holding the same tasks sorted by date.
+     */
+    public List<Task> sort(List<Task> tasks) {
+        if (pendingRebuild != null) {
+            rebuild(pendingRebuild);
+        }
+        List<Task> sorted = new ArrayList<>(tasks.size());
+        sorted.addAll(order.values());
+        for (Task task : tasks) {
+            if (task.getStartTime() == null) {
+                sorted.add(task);
+            }
+        }
+        return sorted;
+    }
+
+    /**
+     * Reassigns sequence numbers from zero in key order, once every sequence number has been used.
+     */
+    private void renumber() {
+        List<Task> timed = new ArrayList<>(order.values());
+        order.clear();
+        keys.clear();
+        nextSequence = 0;
+        for (Task task : timed) {
+            add(task);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package som.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Schedules items to fire at a given minute, with O(1) insertion and cancellation.
+ * <p>This is a hierarchical timing wheel. Each of its six levels is a ring of 64 slots,
+ * and each slot a doubly linked list of timers. A timer is filed under the highest group
+ * of six bits in which its due minute differs from the current minute, in the slot holding
+ * that group of its due minute: timers due within the hour sit on the lowest level, one
+ * slot per minute, and timers due years ahead on the highest. Whenever the clock crosses
+ * into a slot of a higher level, that slot's timers are filed again one or more levels
+ * lower, until they reach the lowest level and fire. So a timer is moved at most once per
+ * level. The levels together cover more than 100,000 years of minutes; timers due even
+ * later wait in an overflow list.</p>
+ * <p>Timers due at or before the current minute fire on the next {@link #advanceTo(long)}.
+ * The wheel is not thread-safe.</p>
+ *
+ * @param <T> the type of the scheduled items.
+ * @author Darien Tan
+ */
+public class TimingWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 6;
+    private static final int EXPIRED = -1;
+
+    private final Timer<T>[][] wheels;
+    private final Timer<T> expired = new Timer<>(null, 0);
+    private final Timer<T> overflow = new Timer<>(null, 0);
+    private final int[] counts = new int[LEVELS + 1]; // timers per level, the last for the overflow list
+    private long current;
+    private int size;
+
+    /**
+     * Constructs an empty wheel starting at the given minute.
+     *
+     * @param current the current time in epoch minutes, see {@link som.task.DateTimes#toEpochMinute}.
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long current) {
+        this.current = current;
+        wheels = (Timer<T>[][]) new Timer<?>[LEVELS][SLOTS];
+        for (Timer<T>[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) {
+                wheel[i] = new Timer<>(null, 0);
+            }
+        }
+    }
+
+    /**
+     * Returns the minute the wheel has advanced to.
+     *
+     * @return the current time in epoch minutes.
+     */
+    public long getCurrent() {
+        return current;
+    }
+
+    /**
+     * Returns the number of timers waiting to fire.
+     *
+     * @return the number of scheduled timers.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Schedules an item to fire at the given minute.
+     *
+     * @param due the minute to fire at; a minute already passed fires on the next advance.
+     * @param item the item to hand back when the timer fires.
+     * @return the timer, which can be cancelled with {@link #cancel(Timer)}.
+     */
+    public Timer<T> schedule(long due, T item) {
+        Timer<T> timer = new Timer<>(item, due);
+        file(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Cancels a timer that has not fired yet.
+     *
+     * @param timer the timer to cancel.
+     * @return true if the timer was still waiting, false if it had fired or was cancelled.
+     */
+    public boolean cancel(Timer<T> timer) {
+        if (!timer.isScheduled()) {
+            return false;
+        }
+        unlink(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Cancels every timer.
+     */
+    public void clear() {
+        takeAll(expired, null);
+        takeAll(overflow, null);
+        for (Timer<T>[] wheel : wheels) {
+            for (Timer<T> slot : wheel) {
+                takeAll(slot, null);
+            }
+        }
+        size = 0;
+    }
+
+    /**
+     * Moves the clock forward and fires every timer due up to and including the given minute.
+     * <p>The clock steps from one minute with work to do to the next: while the lowest levels
+     * are empty it jumps straight to the next slot of the lowest level holding timers. So this
+     * takes O(1) time per timer moved or fired, plus at most 64 steps per level.</p>
+     *
+     * @param minute the new current time in epoch minutes; earlier minutes are ignored.
+     * @return the items of the fired timers in due order, those scheduled for a minute already passed first.
+     */
+    public List<T> advanceTo(long minute) {
+        List<T> fired = new ArrayList<>();
+        takeAll(expired, fired);
+        while (current < minute && fired.size() < size) {
+            int empty = 0;
+            while (empty < LEVELS && counts[empty] == 0) {
+                empty++;
+            }
+            int shift = SLOT_BITS * empty;
+            long next = empty == 0 ? current + 1 : ((current >>> shift) + 1) << shift;
+            if (next > minute) {
+                break;
+            }
+            current = next;
+            cascade();
+            takeAll(expired, fired); // timers cascaded onto the current minute
+            takeAll(wheels[0][slotOf(current, 0)], fired);
+        }
+        current = Math.max(current, minute);
+        size -= fired.size();
+        return fired;
+    }
+
+    /**
+     * Files the timers of each higher-level slot the clock has just entered one or more levels lower.
+     */
+    private void cascade() {
+        int highest = 0;
+        while (highest < LEVELS && (current & ((1L << (SLOT_BITS * (highest + 1))) - 1)) == 0) {
+            highest++;
+        }
+        if (highest == LEVELS) {
+            refile(overflow);
+        }
+        for (int level = Math.min(highest, LEVELS - 1); level > 0; level--) {
+            refile(wheels[level][slotOf(current, level)]);
+        }
+    }
+
+    private void refile(Timer<T> slot) {
+        Timer<T> timer = slot.next;
+        while (timer != slot) {
+            Timer<T> next = timer.next;
+            unlink(timer);
+            file(timer);
+            timer = next;
+        }
+    }
+
+    private void file(Timer<T> timer) {
+        if (timer.due <= current) {
+            link(timer, expired, EXPIRED);
+            return;
+        }
+        int level = (63 - Long.numberOfLeadingZeros(timer.due ^ current)) / SLOT_BITS;
+        if (level < LEVELS) {
+            link(timer, wheels[level][slotOf(timer.due, level)], level);
+        } else {
+            link(timer, overflow, LEVELS);
+        }
+    }
+
+    private void link(Timer<T> timer, Timer<T> slot, int level) {
+        timer.level = level;
+        timer.previous = slot.previous;
+        timer.next = slot;
+        slot.previous.next = timer;
+        slot.previous = timer;
+        if (level != EXPIRED) {
+            counts[level]++;
+        }
+    }
+
+    private void unlink(Timer<T> timer) {
+        timer.previous.next = timer.next;
+        timer.next.previous = timer.previous;
+        timer.previous = null;
+        timer.next = null;
+        if (timer.level != EXPIRED) {
+            counts[timer.level]--;
+        }
+    }
+
+    private static int slotOf(long minute, int level) {
+        return (int) ((minute >>> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+
+    /**
+     * Empties a slot, collecting the items of its timers if a list is given.
+     */
+    private void takeAll(Timer<T> slot, List<T> items) {
+        while (slot.next != slot) {
+            Timer<T> timer = slot.next;
+            if (items != null) {
+                items.add(timer.item);
+            }
+            unlink(timer);
+        }
+    }
+
+    /**
+     * A scheduled item, linked into the slot it waits in.
+     *
+     * @param <T> the type of the item.
+     */
+    public static class Timer<T> {
+        private final T item;
+        private final long due;
+        private Timer<T> previous = this;
+        private Timer<T> next = this;
+        private int level;
+
+        private Timer(T item, long due) {
+            this.item = item;
+            this.due = due;
+        }
+
+        /**
+         * Returns the minute this timer fires at.
+         *
+         * @return the due time in epoch minutes.
+         */
+        public long getDue() {
+            return due;
+        }
+
+        /**
+         * Returns whether this timer is still waiting to fire.
+         *
+         * @return false once it has fired or been cancelled.
+         */
+        public boolean isScheduled() {
+            return next != null;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package som.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+import som.task.Task;
+
+/**
+ * Maps lowercase words to the tasks whose descriptions contain them.
+ * <p>A word is a maximal run of letters and digits, so "Return book (library)" holds
+ * the words "return", "book" and "library". Whole-word queries walk the shortest
+ * matching posting list instead of visiting every task.</p>
+ * <p>The words are also kept in a {@link BkTree}, so typo-tolerant queries only compute
+ * edit distances against a small part of the word dictionary.</p>
+ *
+ * @author Darien Tan
+ */
+public class TokenIndex extends PostingIndex<String> {
+    private final BkTree dictionary = new BkTree();
+
+    /**
+     * Returns the number of typos tolerated in a word: one for short words, two otherwise.
+     *
+     * @param word the word being looked for.
+     * @return the largest edit distance accepted for the word.
+     */
+    public static int maxTypos(String word) {
+        return word.length() <= 4 ? 1 : 2;
+    }
+
+    /**
+     * Ranks scored tasks by ascending score, keeping the given order among equal scores.
+     *
+     * @param scores the total edit distance of each matching task.
+     * @return the tasks, closest first.
+     */
+    public static List<Task> rank(Map<Task, Integer> scores) {
+        List<Map.Entry<Task, Integer>> entries = new ArrayList<>(scores.entrySet());
+        entries.sort(Map.Entry.comparingByValue());
+        List<Task> ranked = new ArrayList<>(entries.size());
+        for (Map.Entry<Task, Integer> entry : entries) {
+            ranked.add(entry.getKey());
+        }
+        return ranked;
+    }
+    /**
+     * Splits text into its distinct lowercase words, in order of first appearance.
+     *
+     * @param text the text to split.
+     * @return the words of the text.
+     */
+    public static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        String lower = text.toLowerCase();
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean isWordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (isWordChar && start < 0) {
+                start = i;
+            } else if (!isWordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    @Override
+    protected Collection<String> keysOf(Task task) {
+        return tokenize(task.getDescription());
+    }
+
+    @Override
+    protected void keyAdded(String word) {
+        dictionary.add(word);
+    }
+
+    /**
+     * Returns the tasks whose descriptions contain every given word.
+     *
+     * @param words the lowercase words to look up, see {@link #tokenize(String)}.
+     * @return the matching tasks in list order.
+     */
+    public List<Task> find(Set<String> words) {
+        List<Task> matches = new ArrayList<>();
+        for (Task task : shortestPosting(words)) {
+            if (!isRemoved(task) && (words.size() == 1 || tokenize(task.getDescription()).containsAll(words))) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the tasks holding, for every given word, a word within {@link #maxTypos(String)} edits of it.
+     * <p>The candidates are gathered word by word from the dictionary, not in list order, so
+     * tasks at the same distance are put in list order by their positions.</p>
+     *
+     * @param words the lowercase words to look up, see {@link #tokenize(String)}.
+     * @param position gives the position of an indexed task in the list.
+     * @return the matching tasks, ranked by their total edit distance, then by position.
+     */
+    public List<Task> findFuzzy(Set<String> words, ToIntFunction<Task> position) {
+        Map<Task, Integer> scores = null;
+        for (String word : words) {
+            List<BkTree.Match> matches = dictionary.search(word, maxTypos(word));
+            matches.sort(Comparator.comparingInt(BkTree.Match::distance));
+            Map<Task, Integer> closest = new LinkedHashMap<>();
+            for (BkTree.Match match : matches) {
+                for (Task task : posting(match.word())) {
+                    if (!isRemoved(task)) {
+                        closest.putIfAbsent(task, match.distance());
+                    }
+                }
+            }
+
+            if (scores == null) {
+                scores = closest;
+            } else {
+                Map<Task, Integer> previous = scores;
+                closest.keySet().retainAll(previous.keySet());
+                closest.replaceAll((task, distance) -> distance + previous.get(task));
+                scores = closest;
+            }
+        }
+        if (scores == null) {
+            return new ArrayList<>();
+        }
+        Map<Task, Integer> distances = scores;
+        Map<Task, Integer> positions = new LinkedHashMap<>();
+        for (Task task : distances.keySet()) {
+            positions.put(task, position.applyAsInt(task));
+        }
+        List<Task> ranked = new ArrayList<>(distances.keySet());
+        ranked.sort(Comparator.comparing((Task task) -> distances.get(task)).thenComparing(positions::get));
+        return ranked;
+    }
+}
@@ -0,0 +1,60 @@
+package som.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import som.task.Task;
+
+/**
+ * Maps every three-character substring (trigram) of the lowercased descriptions to the
+ * tasks containing it.
+ * <p>A description can only contain a keyword if it contains all of the keyword's
+ * trigrams, so substring queries only check the tasks in the shortest posting list
+ * of the keyword's trigrams instead of every task. The candidates are then verified
+ * with the same {@code contains} check as a scan, so the results are identical.</p>
+ *
+ * @author Darien Tan
+ */
+public class TrigramIndex extends PostingIndex<Long> {
+    /** Keywords shorter than this have no trigrams and must be answered by a scan. */
+    public static final int MIN_KEYWORD_LENGTH = 3;
+
+    /**
+     * Returns the distinct trigrams of lowercase text, each packed into a long.
+     *
+     * @param lower the lowercased text.
+     * @return the trigrams of the text.
+     */
+    static Set<Long> trigrams(String lower) {
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + MIN_KEYWORD_LENGTH <= lower.length(); i++) {
+            trigrams.add((long) lower.charAt(i) << 32 | (long) lower.charAt(i + 1) << 16 | lower.charAt(i + 2));
+        }
+        return trigrams;
+    }
+
+    @Override
+    protected Collection<Long> keysOf(Task task) {
+        return trigrams(task.getDescription().toLowerCase());
+    }
+
+    /**
+     * Returns the tasks whose lowercased description contains the lowercased keyword.
+     *
+     * @param lowerKeyword the lowercased keyword, at least {@link #MIN_KEYWORD_LENGTH} characters long.
+     * @return the matching tasks in list order.
+     */
+    public List<Task> find(String lowerKeyword) {
+        assert lowerKeyword.length() >= MIN_KEYWORD_LENGTH : "Keyword too short for trigrams";
+        List<Task> matches = new ArrayList<>();
+        for (Task task : shortestPosting(trigrams(lowerKeyword))) {
+            if (!isRemoved(task) && task.getDescription().toLowerCase().contains(lowerKeyword)) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,85 @@
+package som.task;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Converts task date-times to and from compact numeric forms.
+ * <p>Task times have minute precision, so a date-time fits in a single long counting
+ * minutes since 1970-01-01 0000. Comparing these longs orders date-times exactly like
+ * comparing the LocalDateTime objects.</p>
+ *
+ * @author Darien Tan
+ */
+public class DateTimes {
+    /** The format dates are entered and saved in, e.g. 2019-12-02 1800. */
+    public static final DateTimeFormatter INPUT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+    private static final int INPUT_LENGTH = 15; // "yyyy-MM-dd HHmm"
+
+    /**
+     * Parses a date-time in {@link #INPUT_FORMAT}.
+     * <p>Well-formed input with a four-digit year is read field by field without going through
+     * the formatter. Anything else, including out-of-range fields, is left to the formatter, so
+     * the result and the errors are exactly those of
+     * {@code LocalDateTime.parse(text, INPUT_FORMAT)}.</p>
+     *
+     * @param text the text to parse, e.g. "2019-12-02 1800".
+     * @return the parsed date-time.
+     * @throws DateTimeParseException if the text is not a valid date-time in the format.
+     */
+    public static LocalDateTime parse(CharSequence text) {
+        if (text.length() == INPUT_LENGTH && text.charAt(4) == '-' && text.charAt(7) == '-'
+                && text.charAt(10) == ' ') {
+            int year = digits(text, 0, 4);
+            int month = digits(text, 5, 7);
+            int day = digits(text, 8, 10);
+            int hour = digits(text, 11, 13);
+            int minute = digits(text, 13, 15);
+            if (year >= 1 && month >= 1 && month <= 12 && day >= 1
+                    && day <= Month.of(month).length(Year.isLeap(year)) && hour >= 0 && hour < 24
+                    && minute >= 0 && minute < 60) {
+                return LocalDateTime.of(year, month, day, hour, minute);
+            }
+        }
+        return LocalDateTime.parse(text, INPUT_FORMAT);
+    }
+
+    /**
+     * Returns the value of the decimal digits in the given range, or -1 if any character is not a digit.
+     */
+    private static int digits(CharSequence text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Returns the minutes between 1970-01-01 0000 and the given date-time, ignoring seconds.
+     *
+     * @param dateTime the date-time to convert.
+     * @return the epoch minute.
+     */
+    public static long toEpochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * Returns the date-time the given number of minutes after 1970-01-01 0000.
+     *
+     * @param minute the epoch minute.
+     * @return the date-time.
+     */
+    public static LocalDateTime fromEpochMinute(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+}
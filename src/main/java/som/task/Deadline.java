@@ -14,7 +14,6 @@ import som.SomException;
  * @author Darien Tan
  */
 public class Deadline extends Task {
-    private static final DateTimeFormatter INPUT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
     private static final DateTimeFormatter OUTPUT_FORMAT = DateTimeFormatter.ofPattern("MMM dd yyyy h:mma");
     private LocalDateTime by;
 
@@ -27,14 +26,25 @@ public class Deadline extends Task {
     public Deadline(String description, String strBy) throws SomException {
         super(description);
         try {
-            this.by = LocalDateTime.parse(strBy, INPUT_FORMAT);
-            // Check if the deadline is before or equal to now
-            if (this.by.isBefore(LocalDateTime.now()) || this.by.isEqual(LocalDateTime.now())) {
-                throw new SomException("Deadline must be after the current time.");
-            }
+            this.by = DateTimes.parse(strBy);
         } catch (DateTimeParseException e) {
             throw new SomException("Invalid date format! Use: yyyy-MM-dd HHmm (e.g., 2019-12-02 1800)");
         }
+        if (!this.by.isAfter(TaskClock.now())) {
+            throw new SomException("Deadline must be after the current time.");
+        }
+    }
+
+    /**
+     * Constructs a Deadline from a date-time that was validated when it was first added,
+     * e.g. one read back from storage.
+     *
+     * @param description the task description.
+     * @param by the deadline date/time.
+     */
+    public Deadline(String description, LocalDateTime by) {
+        super(description);
+        this.by = by;
     }
 
     /**
@@ -52,8 +62,9 @@ public class Deadline extends Task {
      * @return the formatted representation of the task to be saved.
      */
     @Override
-    public String encode() {
-        return ("D | " + (this.isDone ? "1" : "0") + " | " + this.description + " | " + this.by.format(INPUT_FORMAT));
+    protected String buildEncoding() {
+        return ("D | " + (this.isDone ? "1" : "0") + " | " + this.description
+                + " | " + this.by.format(DateTimes.INPUT_FORMAT));
     }
 
     @Override
@@ -67,7 +78,7 @@ public class Deadline extends Task {
      * @return the formatted task string.
      */
     @Override
-    public String toString() {
-        return " [D] " + super.toString() + " (by: " + this.by.format(OUTPUT_FORMAT) + ")";
+    protected String buildString() {
+        return " [D] " + super.buildString() + " (by: " + this.by.format(OUTPUT_FORMAT) + ")";
     }
 }
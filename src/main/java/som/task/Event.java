@@ -15,7 +15,6 @@ import som.SomException;
  * @author Darien Tan
  */
 public class Event extends Task {
-    private static final DateTimeFormatter INPUT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
     private static final DateTimeFormatter OUTPUT_FORMAT = DateTimeFormatter.ofPattern("MMM dd yyyy h:mma");
     private LocalDateTime from;
     private LocalDateTime to;
@@ -30,20 +29,33 @@ public class Event extends Task {
     public Event(String description, String strFrom, String strTo) throws SomException {
         super(description);
         try {
-            this.from = LocalDateTime.parse(strFrom, INPUT_FORMAT);
-            this.to = LocalDateTime.parse(strTo, INPUT_FORMAT);
-            // Check if the deadline is before or equal to now
-            if (this.to.isBefore(LocalDateTime.now()) || this.to.isEqual(LocalDateTime.now())) {
-                throw new SomException("Event end date and time must be after the current time.");
-            }
+            this.from = DateTimes.parse(strFrom);
+            this.to = DateTimes.parse(strTo);
         } catch (DateTimeParseException e) {
             throw new SomException("Invalid date format! Use: yyyy-MM-dd HHmm (e.g., 2019-12-02 1800)");
         }
+        if (!this.to.isAfter(TaskClock.now())) {
+            throw new SomException("Event end date and time must be after the current time.");
+        }
         if (from.isAfter(to)) {
             throw new SomException("Start date and time cannot be after end date and time.");
         }
     }
 
+    /**
+     * Constructs an Event from date-times that were validated when it was first added,
+     * e.g. ones read back from storage.
+     *
+     * @param description the task description.
+     * @param from the start time.
+     * @param to the end time.
+     */
+    public Event(String description, LocalDateTime from, LocalDateTime to) {
+        super(description);
+        this.from = from;
+        this.to = to;
+    }
+
     /**
      * Returns the start date and time of the Event.
      *
@@ -68,9 +80,9 @@ public class Event extends Task {
      * @return the formatted representation of the task to be saved.
      */
     @Override
-    public String encode() {
+    protected String buildEncoding() {
         return ("E | " + (this.isDone ? "1" : "0") + " | " + this.description
-                + " | " + this.from.format(INPUT_FORMAT) + " | " + this.to.format(INPUT_FORMAT));
+                + " | " + this.from.format(DateTimes.INPUT_FORMAT) + " | " + this.to.format(DateTimes.INPUT_FORMAT));
     }
 
     @Override
@@ -78,14 +90,19 @@ public class Event extends Task {
         return this.from;
     }
 
+    @Override
+    public LocalDateTime getEndTime() {
+        return this.to;
+    }
+
     /**
      * Returns string representation of the Event task.
      *
      * @return formatted task string.
      */
     @Override
-    public String toString() {
-        return " [E] " + super.toString() + " (from: "
+    protected String buildString() {
+        return " [E] " + super.buildString() + " (from: "
                 + this.from.format(OUTPUT_FORMAT) + " to: " + this.to.format(OUTPUT_FORMAT) + ")";
     }
 }
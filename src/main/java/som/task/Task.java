@@ -2,18 +2,31 @@ package som.task;
 
 import java.time.LocalDateTime;
 
+import som.Metrics;
+
 /**
  * Represents a generic Task in the task list.
  * <p>This abstract class serves as the base for all specific task types, such as
  * Todo, Deadline and Event. It contains common properties such as description
- * and completion status. Subclasses must implement the toString() and encode()
+ * and completion status. Subclasses must implement the buildString() and buildEncoding()
  * methods to define their string representation and format. </p>
+ * <p>Both forms are built once and cached, since a task is saved and listed far more often
+ * than it changes. Anything that changes a task must call {@link #invalidate()}.</p>
+ * <p>Tasks are changed on the command thread, but their forms are also built elsewhere,
+ * e.g. when a snapshot is written in the background. A form built while the task changed
+ * may show the earlier state, so it is only kept if no change happened meanwhile.</p>
+ * <p>A task in a {@link som.TaskList} has a stable ID, which stays the same however the list
+ * is reordered and is saved alongside the task. It is not part of either form.</p>
  *
  * @author Darien Tan
  */
 public abstract class Task implements Comparable<Task> {
     protected String description;
     protected boolean isDone;
+    private long id; // 0 until the task is added to a task list
+    private volatile String encoded; // cached encode(), null until built or after a change
+    private volatile String rendered; // cached toString(), null until built or after a change
+    private volatile int version; // counts the changes, which are only made on one thread
 
     /**
      * Constructs a new Task with the given description.
@@ -29,10 +42,45 @@ public abstract class Task implements Comparable<Task> {
         return null; // Default: no time → treated as latest
     }
 
+    /**
+     * Returns when the task starts: the due time of a deadline or the start of an event.
+     *
+     * @return the start time, or null for a task without a time.
+     */
+    public LocalDateTime getStartTime() {
+        return getSortTime();
+    }
+
+    /**
+     * Returns when the task ends: the due time of a deadline or the end of an event.
+     *
+     * @return the end time, or null for a task without a time.
+     */
+    public LocalDateTime getEndTime() {
+        return getSortTime();
+    }
+
     public String getDescription() {
         return this.description;
     }
 
+    public long getId() {
+        return this.id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Returns whether the task has been marked as done.
+     *
+     * @return true if the task is done.
+     */
+    public boolean isDone() {
+        return this.isDone;
+    }
+
     /**
      * Returns the status icon: "X" if done, " " otherwise.
      *
@@ -47,6 +95,7 @@ public abstract class Task implements Comparable<Task> {
      */
     public void markAsDone() {
         isDone = true;
+        invalidate();
     }
 
     /**
@@ -54,6 +103,16 @@ public abstract class Task implements Comparable<Task> {
      */
     public void markAsUndone() {
         isDone = false;
+        invalidate();
+    }
+
+    /**
+     * Discards the cached forms of the task, so they are rebuilt from its current state.
+     */
+    protected void invalidate() {
+        version++;
+        encoded = null;
+        rendered = null;
     }
 
     /**
@@ -61,7 +120,28 @@ public abstract class Task implements Comparable<Task> {
      *
      * @return the formatted representation of the task to be saved.
      */
-    public abstract String encode();
+    public final String encode() {
+        String line = encoded;
+        if (line != null) {
+            Metrics.ENCODED_LINES.hit();
+            return line;
+        }
+        Metrics.ENCODED_LINES.miss();
+        int before = version;
+        line = buildEncoding();
+        encoded = line;
+        if (version != before) {
+            encoded = null; // changed while being encoded, so the line may be stale
+        }
+        return line;
+    }
+
+    /**
+     * Builds the line returned by {@link #encode()}.
+     *
+     * @return the formatted representation of the task to be saved.
+     */
+    protected abstract String buildEncoding();
 
     @Override
     public int compareTo(Task other) {
@@ -86,7 +166,28 @@ public abstract class Task implements Comparable<Task> {
      * @return formatted task string.
      */
     @Override
-    public String toString() {
+    public final String toString() {
+        String text = rendered;
+        if (text != null) {
+            Metrics.DISPLAY_STRINGS.hit();
+            return text;
+        }
+        Metrics.DISPLAY_STRINGS.miss();
+        int before = version;
+        text = buildString();
+        rendered = text;
+        if (version != before) {
+            rendered = null; // changed while being built, so the text may be stale
+        }
+        return text;
+    }
+
+    /**
+     * Builds the string returned by {@link #toString()}.
+     *
+     * @return formatted task string.
+     */
+    protected String buildString() {
         return " [" + getStatusIcon() + "] " + description;
     }
 }
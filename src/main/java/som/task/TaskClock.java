@@ -0,0 +1,60 @@
+package som.task;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+/**
+ * Supplies the current time that new deadlines and events are checked against.
+ * <p>The clock can be replaced, e.g. by a fixed clock in tests. Between
+ * {@link #beginBatch()} and {@link #endBatch()} the time is read once and reused, so
+ * creating many tasks at once, as a script does, reads the system clock only once.
+ * Batches may be nested; the time is released when the outermost batch ends.</p>
+ *
+ * @author Darien Tan
+ */
+public class TaskClock {
+    private static Clock clock = Clock.systemDefaultZone();
+    private static volatile LocalDateTime batchTime;
+    private static int batchDepth;
+
+    /**
+     * Returns the current time, or the time read when the current batch began.
+     *
+     * @return the current local date-time.
+     */
+    public static LocalDateTime now() {
+        LocalDateTime time = batchTime;
+        return time != null ? time : LocalDateTime.now(clock);
+    }
+
+    /**
+     * Replaces the clock that the current time is read from.
+     *
+     * @param newClock the clock to use, e.g. {@link Clock#systemDefaultZone()}.
+     */
+    public static synchronized void setClock(Clock newClock) {
+        clock = newClock;
+        if (batchTime != null) {
+            batchTime = LocalDateTime.now(clock);
+        }
+    }
+
+    /**
+     * Reads the clock once and returns that time from {@link #now()} until the batch ends.
+     */
+    public static synchronized void beginBatch() {
+        if (batchDepth++ == 0) {
+            batchTime = LocalDateTime.now(clock);
+        }
+    }
+
+    /**
+     * Ends a batch started by {@link #beginBatch()}.
+     */
+    public static synchronized void endBatch() {
+        assert batchDepth > 0 : "endBatch() without beginBatch()";
+        if (--batchDepth == 0) {
+            batchTime = null;
+        }
+    }
+}
@@ -24,7 +24,7 @@ public class Todo extends Task {
      *
      * @return the formatted representation of the task to be saved.
      */
-    public String encode() {
+    protected String buildEncoding() {
         return ("T | " + (this.isDone ? "1" : "0") + " | " + this.description);
     }
 
@@ -34,7 +34,7 @@ public class Todo extends Task {
      * @return formatted task string.
      */
     @Override
-    public String toString() {
-        return " [T] " + super.toString();
+    protected String buildString() {
+        return " [T] " + super.buildString();
     }
 }
@@ -1,11 +1,21 @@
 package som;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 
 import org.junit.jupiter.api.Test;
 
+import som.task.DateTimes;
 import som.task.Deadline;
+import som.task.TaskClock;
 
 public class DeadlineTest {
 
@@ -30,4 +40,47 @@ public class DeadlineTest {
                 new Deadline("Invalid date", "2025/03/11 23:59")
         );
     }
+
+    @Test
+    void deadlineIsCheckedAgainstInjectedClock() throws SomException {
+        // Arrange
+        TaskClock.setClock(Clock.fixed(Instant.parse("2020-01-01T00:00:00Z"), ZoneOffset.UTC));
+        try {
+            // Act
+            Deadline deadline = new Deadline("Submit report", "2020-01-01 0001");
+
+            // Assert
+            assertEquals(LocalDateTime.of(2020, 1, 1, 0, 1), deadline.getBy());
+            assertThrows(SomException.class, () -> new Deadline("Submit report", "2020-01-01 0000"));
+        } finally {
+            TaskClock.setClock(Clock.systemDefaultZone());
+        }
+    }
+
+    @Test
+    void parseMatchesFormatterOnUnusualDates() {
+        // Act & Assert
+        assertEquals(LocalDateTime.of(2024, 2, 29, 10, 0), DateTimes.parse("2024-02-30 1000"));
+        assertEquals(LocalDateTime.of(2099, 12, 31, 23, 59), DateTimes.parse("2099-12-31 2359"));
+        assertEquals(LocalDateTime.of(2024, 1, 2, 0, 0), DateTimes.parse("2024-01-01 2400"));
+        assertThrows(DateTimeParseException.class, () -> DateTimes.parse("2024-01-01 1260"));
+        assertThrows(DateTimeParseException.class, () -> DateTimes.parse("2024-1-01 1000"));
+    }
+
+    @Test
+    void encodedAndDisplayedFormsAreCachedUntilMarked() {
+        // Arrange
+        Deadline deadline = new Deadline("Submit report", LocalDateTime.of(2099, 3, 11, 23, 59));
+        String line = deadline.encode();
+        long hits = Metrics.ENCODED_LINES.getHits();
+
+        // Act & Assert
+        assertSame(line, deadline.encode());
+        assertEquals(hits + 1, Metrics.ENCODED_LINES.getHits());
+        assertSame(deadline.toString(), deadline.toString());
+
+        deadline.markAsDone();
+        assertEquals("D | 1 | Submit report | 2099-03-11 2359", deadline.encode());
+        assertTrue(deadline.toString().contains("[X]"));
+    }
 }
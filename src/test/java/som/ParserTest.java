@@ -3,10 +3,15 @@ package som;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
 
 import org.junit.jupiter.api.Test;
 
 import som.command.AddCommand;
+import som.command.BetweenCommand;
+import som.command.BulkCommand;
 import som.command.Command;
 import som.command.DeleteCommand;
 import som.command.ExitCommand;
@@ -67,6 +72,15 @@ public class ParserTest {
         );
     }
 
+    @Test
+    void deadlineTrailingByThrowsMissingBy() {
+        // Act
+        SomException e = assertThrows(SomException.class, () -> Parser.parse("deadline submit report /by "));
+
+        // Assert
+        assertTrue(e.getMessage().startsWith("Oops! A deadline task must include a task and '/by'."));
+    }
+
     @Test
     void parse_validEvent_returnsAddCommandWithEvent() throws SomException {
         // Act
@@ -105,6 +119,18 @@ public class ParserTest {
         );
     }
 
+    @Test
+    void eventTrailingMarkersThrowMissingMarker() {
+        // Act
+        SomException trailingTo = assertThrows(SomException.class, () ->
+                Parser.parse("event Team Sync /from 2030-01-01 1000 /to "));
+        SomException trailingFrom = assertThrows(SomException.class, () -> Parser.parse("event Team Sync /from "));
+
+        // Assert
+        assertEquals("Oops! An event must include '/to' to specify end time.", trailingTo.getMessage());
+        assertTrue(trailingFrom.getMessage().startsWith("Oops! An event must include '/from'"));
+    }
+
     @Test
     void markValidIndexReturnsMarkCommand() throws SomException {
         // Act
@@ -143,6 +169,18 @@ public class ParserTest {
         );
     }
 
+    @Test
+    void markByIdReturnsMarkCommandForId() throws SomException {
+        // Act
+        Command c = Parser.parse("mark #1234");
+
+        // Assert
+        assertInstanceOf(MarkCommand.class, c);
+        assertEquals(1234, ((MarkCommand) c).getId());
+        assertThrows(SomException.class, () -> Parser.parse("delete #"));
+        assertThrows(SomException.class, () -> Parser.parse("unmark #12a"));
+    }
+
     @Test
     void deleteValidIndexReturnsDeleteCommand() throws SomException {
         // Act
@@ -165,6 +203,28 @@ public class ParserTest {
         assertEquals("2025-03-18", cmd.getKeyword());
     }
 
+    @Test
+    void findWholeWordReturnsWholeWordFindCommand() throws SomException {
+        // Act
+        Command c = Parser.parse("find -w book");
+
+        // Assert
+        assertInstanceOf(FindCommand.class, c);
+        FindCommand cmd = (FindCommand) c;
+        assertEquals("book", cmd.getKeyword());
+        assertEquals(FindCommand.Mode.WHOLE_WORD, cmd.getMode());
+    }
+
+    @Test
+    void fuzzyFindReturnsFuzzyFindCommand() throws SomException {
+        // Act
+        Command c = Parser.parse("find~ bok");
+
+        // Assert
+        assertInstanceOf(FindCommand.class, c);
+        assertEquals(FindCommand.Mode.FUZZY, ((FindCommand) c).getMode());
+    }
+
     @Test
     void findMissingDateThrowsSomException() {
         // Act & Assert
@@ -173,6 +233,71 @@ public class ParserTest {
         );
     }
 
+    @Test
+    void onDateCoversWholeDay() throws SomException {
+        // Act
+        Command c = Parser.parse("on 2025-08-11");
+
+        // Assert
+        assertInstanceOf(BetweenCommand.class, c);
+        BetweenCommand cmd = (BetweenCommand) c;
+        assertEquals(LocalDateTime.of(2025, 8, 11, 0, 0), cmd.getFrom());
+        assertEquals(LocalDateTime.of(2025, 8, 11, 23, 59), cmd.getTo());
+    }
+
+    @Test
+    void betweenAcceptsDatesAndDateTimes() throws SomException {
+        // Act
+        BetweenCommand cmd = (BetweenCommand) Parser.parse("between 2025-08-11 0900 /to 2025-08-17");
+
+        // Assert
+        assertEquals(LocalDateTime.of(2025, 8, 11, 9, 0), cmd.getFrom());
+        assertEquals(LocalDateTime.of(2025, 8, 17, 23, 59), cmd.getTo());
+    }
+
+    @Test
+    void betweenReversedPeriodThrowsSomException() {
+        // Act & Assert
+        assertThrows(SomException.class, () ->
+                Parser.parse("between 2025-08-17 /to 2025-08-11")
+        );
+    }
+
+    @Test
+    void betweenTrailingToThrowsMissingTo() {
+        // Act
+        SomException e = assertThrows(SomException.class, () -> Parser.parse("between 2025-01-01 /to "));
+
+        // Assert
+        assertTrue(e.getMessage().startsWith("Oops! A period must include '/to'"));
+    }
+
+    @Test
+    void deleteListAndRangeReturnsBulkCommand() throws SomException {
+        // Act
+        Command cmd = Parser.parse("delete 3,7-9");
+
+        // Assert
+        assertInstanceOf(BulkCommand.class, cmd);
+        assertEquals(BulkCommand.Action.DELETE, ((BulkCommand) cmd).getAction());
+    }
+
+    @Test
+    void markDoneAndFindReturnBulkCommands() throws SomException {
+        // Act & Assert
+        assertInstanceOf(BulkCommand.class, Parser.parse("unmark done"));
+        assertInstanceOf(BulkCommand.class, Parser.parse("mark find:book"));
+        assertInstanceOf(MarkCommand.class, Parser.parse("mark 2"));
+    }
+
+    @Test
+    void bulkReversedRangeThrowsSomException() {
+        // Act & Assert
+        assertThrows(SomException.class, () ->
+                Parser.parse("delete 9-3")
+        );
+    }
+
     @Test
     void uiCommandReturnsUiCommand() throws SomException {
         // Act
@@ -0,0 +1,400 @@
+package som;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import som.command.RunCommand;
+import som.task.Deadline;
+import som.task.Task;
+import som.task.Todo;
+
+public class StorageTest {
+    private Path dir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        System.clearProperty("som.format");
+        dir = Files.createTempDirectory("som");
+        Storage.setDataDirectory(dir);
+    }
+
+    @Test
+    void journalReplayRestoresMutations() throws SomException {
+        // Arrange
+        TaskList tasks = new TaskList(Storage.load());
+        Task book = new Todo("read book");
+        Task report = new Deadline("submit report", "2099-03-11 2359");
+        tasks.add(book);
+        Storage.append(Journal.add(book), tasks);
+        tasks.add(report);
+        Storage.append(Journal.add(report), tasks);
+        tasks.mark(1);
+        Storage.append(Journal.mark(1), tasks);
+        tasks.remove(0);
+        Storage.append(Journal.delete(0), tasks);
+
+        // Act
+        List<Task> loaded = Storage.load();
+
+        // Assert
+        assertEquals(1, loaded.size());
+        assertEquals(report.toString(), loaded.get(0).toString());
+        assertTrue(Files.exists(dir.resolve("som.journal")));
+    }
+
+    @Test
+    void journalReplayRestoresInsertions() throws SomException {
+        // Arrange
+        TaskList tasks = new TaskList(Storage.load());
+        Task book = new Todo("read book");
+        tasks.add(book);
+        Storage.append(Journal.add(book), tasks);
+        Task report = new Deadline("submit report", "2099-03-11 2359");
+        Storage.append(Journal.insert(0, report), tasks);
+
+        // Act
+        List<Task> loaded = Storage.load();
+
+        // Assert
+        assertEquals(2, loaded.size());
+        assertEquals(report.toString(), loaded.get(0).toString());
+    }
+
+    @Test
+    void journalReplayRestoresBulkChanges() throws SomException {
+        // Arrange
+        TaskList tasks = new TaskList(Storage.load());
+        for (int i = 1; i <= 6; i++) {
+            Task task = new Todo("task " + i);
+            tasks.add(task);
+            Storage.append(Journal.add(task), tasks);
+        }
+        Ui ui = new Ui();
+        Parser.parse("mark 1,3-4").execute(tasks, ui);
+        Parser.parse("delete 2,5-6").execute(tasks, ui);
+
+        // Act
+        List<Task> loaded = Storage.load();
+
+        // Assert
+        assertEquals(3, loaded.size());
+        for (int i = 0; i < loaded.size(); i++) {
+            assertEquals(tasks.get(i).toString(), loaded.get(i).toString());
+            assertTrue(loaded.get(i).isDone());
+        }
+    }
+
+    @Test
+    void idsSurviveJournalReplayAndSnapshots() throws SomException, IOException {
+        // Arrange
+        Files.write(dir.resolve("som.txt"), List.of("T | 0 | read book", "#5 | T | 1 | buy milk"));
+        TaskList tasks = new TaskList(Storage.load());
+        Task report = new Deadline("submit report", "2099-03-11 2359");
+        tasks.add(report);
+        Storage.append(Journal.add(report), tasks);
+
+        // Act
+        List<Task> replayed = Storage.load();
+        Storage.save(tasks.getAllTasks());
+        List<Task> reloaded = Storage.load();
+
+        // Assert
+        assertEquals(List.of(0L, 5L, 7L), List.of(replayed.get(0).getId(), replayed.get(1).getId(),
+                replayed.get(2).getId()));
+        assertEquals(List.of(6L, 5L, 7L), List.of(reloaded.get(0).getId(), reloaded.get(1).getId(),
+                reloaded.get(2).getId()));
+        assertEquals("#6 | T | 0 | read book", Files.readAllLines(dir.resolve("som.txt")).get(0));
+    }
+
+    @Test
+    void deletedIdsAreNotGivenOutAgainAfterRestart() throws SomException {
+        // Arrange
+        TaskList tasks = new TaskList(Storage.load(), Storage.getNextId());
+        Task book = new Todo("read book");
+        tasks.add(book);
+        Storage.append(Journal.add(book), tasks);
+        Task report = new Deadline("submit report", "2099-03-11 2359");
+        tasks.add(report);
+        Storage.append(Journal.add(report), tasks);
+        tasks.remove(1);
+        Storage.append(Journal.delete(1), tasks);
+
+        // Act
+        TaskList replayed = new TaskList(Storage.load(), Storage.getNextId());
+        Storage.save(replayed);
+        TaskList reloaded = new TaskList(Storage.load(), Storage.getNextId());
+        Task milk = new Todo("buy milk");
+        reloaded.add(milk);
+
+        // Assert
+        assertEquals(3, replayed.getNextId());
+        assertEquals(3, milk.getId());
+    }
+
+    @Test
+    void binaryFileKeepsNextId() throws SomException {
+        // Arrange
+        System.setProperty("som.format", "binary");
+        Storage.setDataDirectory(dir);
+        TaskList tasks = new TaskList(Storage.load(), Storage.getNextId());
+        tasks.add(new Todo("read book"));
+        tasks.add(new Todo("return book"));
+        tasks.remove(1);
+        Storage.save(tasks);
+
+        // Act
+        TaskList reloaded = new TaskList(Storage.load(), Storage.getNextId());
+
+        // Assert
+        assertEquals(1, reloaded.size());
+        assertEquals(3, reloaded.getNextId());
+    }
+
+    @Test
+    void parallelReadKeepsFileOrderAndLineNumbers() throws SomException {
+        // Arrange
+        StringBuilder file = new StringBuilder("N | 42\n");
+        for (int line = 2; line <= 40; line++) {
+            if (line == 4 || line == 21 || line == 39) {
+                file.append("X | 0 | corrupt ").append(line).append('\n');
+            } else if (line == 12) {
+                file.append('\n');
+            } else {
+                file.append('#').append(line).append(" | T | ").append(line % 2).append(" | task ").append(line)
+                        .append('\n');
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(file.toString().getBytes(StandardCharsets.UTF_8));
+        List<Task> sequential = new ArrayList<>();
+        List<Task> parallel = new ArrayList<>();
+        PrintStream out = System.out;
+        ByteArrayOutputStream sequentialWarnings = new ByteArrayOutputStream();
+        ByteArrayOutputStream parallelWarnings = new ByteArrayOutputStream();
+
+        // Act
+        long sequentialNextId;
+        long parallelNextId;
+        try {
+            System.setOut(new PrintStream(sequentialWarnings, true, StandardCharsets.UTF_8));
+            sequentialNextId = TaskFileReader.readAll(buffer, StandardCharsets.UTF_8, sequential, Integer.MAX_VALUE, 1);
+            System.setOut(new PrintStream(parallelWarnings, true, StandardCharsets.UTF_8));
+            parallelNextId = TaskFileReader.readAll(buffer, StandardCharsets.UTF_8, parallel, 0, 4);
+        } finally {
+            System.setOut(out);
+        }
+
+        // Assert
+        assertEquals(42, sequentialNextId);
+        assertEquals(42, parallelNextId);
+        assertEquals(35, sequential.size());
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(Storage.encodeLine(sequential.get(i)), Storage.encodeLine(parallel.get(i)));
+        }
+        String warnings = parallelWarnings.toString(StandardCharsets.UTF_8);
+        assertEquals(sequentialWarnings.toString(StandardCharsets.UTF_8), warnings);
+        for (int line : new int[] {4, 12, 21, 39}) {
+            assertTrue(warnings.contains("Skipping corrupt task on line " + line + ": "), warnings);
+        }
+    }
+
+    @Test
+    void undoAndRedoAreSavedLikeOtherChanges() throws SomException {
+        // Arrange
+        TaskList tasks = new TaskList(Storage.load());
+        Ui ui = new Ui();
+        for (int i = 1; i <= 4; i++) {
+            Parser.parse("todo task " + i).execute(tasks, ui);
+        }
+        Parser.parse("deadline submit report /by 2099-03-11 2359").execute(tasks, ui);
+        Parser.parse("mark 2").execute(tasks, ui);
+        Parser.parse("delete 1,3-4").execute(tasks, ui);
+        Parser.parse("undo").execute(tasks, ui);
+        Parser.parse("undo").execute(tasks, ui);
+        Parser.parse("redo").execute(tasks, ui);
+        Parser.parse("sort").execute(tasks, ui);
+        String undone = Parser.parse("undo").execute(tasks, ui);
+
+        // Act
+        List<Task> loaded = Storage.load();
+
+        // Assert
+        assertEquals("Undid sorting the list.\nNow you have 5 tasks in the list.", undone);
+        assertEquals(5, loaded.size());
+        for (int i = 0; i < loaded.size(); i++) {
+            assertEquals(tasks.get(i).toString(), loaded.get(i).toString());
+            assertEquals(tasks.get(i).getId(), loaded.get(i).getId());
+        }
+        assertTrue(loaded.get(1).isDone());
+    }
+
+    @Test
+    void markingWhileSnapshotIsWrittenIsNotLost() throws SomException, InterruptedException {
+        // Arrange
+        CountDownLatch isEncoding = new CountDownLatch(1);
+        CountDownLatch isMarked = new CountDownLatch(1);
+        Task book = new Todo("read book") {
+            @Override
+            protected String buildEncoding() {
+                String line = super.buildEncoding();
+                if (isEncoding.getCount() > 0) {
+                    isEncoding.countDown(); // hold the snapshot until the task has been marked
+                    try {
+                        isMarked.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return line;
+            }
+        };
+        AtomicReference<IOException> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try {
+                Storage.writeSnapshot(List.of(book), 0, false);
+            } catch (IOException e) {
+                failure.set(e);
+            }
+        });
+        writer.start();
+        isEncoding.await();
+
+        // Act
+        book.markAsDone();
+        isMarked.countDown();
+        writer.join();
+        Storage.save(List.of(book));
+
+        // Assert
+        assertEquals(null, failure.get());
+        assertEquals("T | 1 | read book", book.encode());
+        assertTrue(Storage.load().get(0).isDone());
+    }
+
+    @Test
+    void loadKeepsTasksThatAreNowPastDue() throws SomException, IOException {
+        // Arrange
+        Storage.load();
+        Files.write(dir.resolve("som.txt"), List.of("D | 0 | submit report | 2001-03-11 2359",
+                "E | 1 | project meeting | 2001-03-11 1000 | 2001-03-11 1200", "D | 0 | broken | 2001-13-11 2359"));
+
+        // Act
+        List<Task> loaded = Storage.load();
+
+        // Assert
+        assertEquals(2, loaded.size());
+        assertEquals("D | 0 | submit report | 2001-03-11 2359", loaded.get(0).encode());
+        assertTrue(loaded.get(1).isDone());
+    }
+
+    @Test
+    void runScriptSavesOnceAndReportsFailedLines() throws SomException, IOException {
+        // Arrange
+        TaskList tasks = new TaskList(Storage.load());
+        Path script = dir.resolve("script.txt");
+        Files.write(script, List.of("todo read book", "# comment", "", "mark 1", "delete 5", "todo buy milk"));
+
+        // Act
+        String result = new RunCommand(script.toString()).execute(tasks, new Ui());
+        List<Task> loaded = Storage.load();
+
+        // Assert
+        assertEquals("Ran 3 of 4 commands in " + script + ". These lines failed:\nLine 5: "
+                + "There is no task 5. You have 1 tasks in the list.", result);
+        assertEquals(2, loaded.size());
+        assertTrue(loaded.get(0).isDone());
+        assertFalse(Files.exists(dir.resolve("som.journal")));
+    }
+
+    @Test
+    void runScriptWithInvalidLineRunsNothing() throws SomException, IOException {
+        // Arrange
+        TaskList tasks = new TaskList(Storage.load());
+        Path script = dir.resolve("script.txt");
+        Files.write(script, List.of("todo read book", "deadline return book"));
+
+        // Act
+        String result = new RunCommand(script.toString()).execute(tasks, new Ui());
+
+        // Assert
+        assertTrue(result.startsWith("No commands were run"));
+        assertEquals(0, tasks.size());
+    }
+
+    @Test
+    void saveFoldsJournalIntoDataFile() throws SomException {
+        // Arrange
+        TaskList tasks = new TaskList(Storage.load());
+        Task book = new Todo("read book");
+        tasks.add(book);
+        Storage.append(Journal.add(book), tasks);
+
+        // Act
+        Storage.save(tasks.getAllTasks());
+        List<Task> loaded = Storage.load();
+
+        // Assert
+        assertEquals(1, loaded.size());
+        assertFalse(Files.exists(dir.resolve("som.journal")));
+    }
+
+    @Test
+    void staleJournalIsDiscarded() throws SomException, IOException {
+        // Arrange
+        TaskList tasks = new TaskList(Storage.load());
+        Task book = new Todo("read book");
+        tasks.add(book);
+        Storage.append(Journal.add(book), tasks);
+        Storage.flush();
+        Files.writeString(dir.resolve("som.txt"), "T | 0 | edited elsewhere" + System.lineSeparator());
+
+        // Act
+        List<Task> loaded = Storage.load();
+
+        // Assert
+        assertEquals(1, loaded.size());
+        assertEquals("edited elsewhere", loaded.get(0).getDescription());
+    }
+
+    @Test
+    void binaryFormatMigratesTextFile() throws SomException {
+        // Arrange
+        TaskList tasks = new TaskList(Storage.load());
+        Task report = new Deadline("submit report", "2099-03-11 2359");
+        tasks.add(new Todo("read book"));
+        tasks.add(report);
+        tasks.mark(1);
+        Storage.save(tasks.getAllTasks());
+        System.setProperty("som.format", "binary");
+        Storage.setDataDirectory(dir);
+
+        // Act
+        List<Task> migrated = Storage.load();
+        List<Task> reloaded = Storage.load();
+
+        // Assert
+        assertTrue(Files.exists(dir.resolve("som.bin")));
+        assertEquals(2, reloaded.size());
+        assertEquals(migrated.get(1).toString(), reloaded.get(1).toString());
+        assertEquals(report.encode(), reloaded.get(1).encode());
+        assertEquals(report.getId(), reloaded.get(1).getId());
+        assertTrue(reloaded.get(1).isDone());
+        System.clearProperty("som.format");
+    }
+}
@@ -0,0 +1,89 @@
+package som;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import som.task.Deadline;
+import som.task.Event;
+import som.task.Task;
+import som.task.Todo;
+
+public class TaskColumnsTest {
+    private TaskColumns columns;
+
+    @BeforeEach
+    public void setUp() {
+        columns = new TaskColumns();
+    }
+
+    @Test
+    void getRebuildsStoredTasks() {
+        // Arrange
+        Task report = new Deadline("submit report", LocalDateTime.of(2099, 3, 11, 23, 59));
+        report.markAsDone();
+        Task trip = new Event("trip to café", LocalDateTime.of(2099, 8, 9, 8, 0), LocalDateTime.of(2099, 8, 12, 20, 0));
+
+        // Act
+        columns.add(new Todo("read book"));
+        columns.add(report);
+        columns.add(1, trip);
+
+        // Assert
+        assertEquals(3, columns.size());
+        assertEquals("T | 0 | read book", columns.get(0).encode());
+        assertEquals(trip.encode(), columns.get(1).encode());
+        assertEquals(report.encode(), columns.get(2).encode());
+    }
+
+    @Test
+    void removeAndSetDoneShiftRows() {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            columns.add(new Todo("task " + i));
+        }
+        columns.setDone(3, true);
+
+        // Act
+        columns.remove(1);
+        List<Task> removed = columns.removeRows(new int[] {0, 3});
+
+        // Assert
+        assertEquals("task 0", removed.get(0).getDescription());
+        assertEquals("task 4", removed.get(1).getDescription());
+        assertEquals(2, columns.size());
+        assertEquals("task 2", columns.getDescription(0));
+        assertFalse(columns.isDone(0));
+        assertTrue(columns.isDone(1));
+    }
+
+    @Test
+    void sortByTimeMatchesCollectionsSort() {
+        // Arrange
+        List<Task> expected = new ArrayList<>();
+        expected.add(new Todo("read book"));
+        expected.add(new Deadline("late", LocalDateTime.of(2099, 5, 1, 12, 0)));
+        expected.add(new Event("early", LocalDateTime.of(2099, 4, 1, 12, 0), LocalDateTime.of(2099, 4, 2, 12, 0)));
+        expected.add(new Todo("buy milk"));
+        expected.add(new Deadline("also early", LocalDateTime.of(2099, 4, 1, 12, 0)));
+        columns.addAll(expected);
+
+        // Act
+        boolean isChanged = columns.sortByTime();
+        expected.sort(null);
+
+        // Assert
+        assertTrue(isChanged);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).encode(), columns.get(i).encode());
+        }
+        assertFalse(columns.sortByTime());
+    }
+}
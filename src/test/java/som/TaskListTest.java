@@ -1,14 +1,18 @@
 package som;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import som.index.StatsIndex;
 import som.task.Deadline;
 import som.task.Event;
 import som.task.Task;
@@ -59,5 +63,470 @@ public class TaskListTest {
         );
     }
 
+    @Test
+    void findWholeWordsSkipsPartialMatches() {
+        // Arrange
+        Todo book = new Todo("Read book");
+        tasks.add(book);
+        tasks.add(new Todo("Buy notebook"));
+        Todo both = new Todo("book (return) read");
+        tasks.add(both);
+
+        // Act
+        List<Task> matches = tasks.findWholeWords("BOOK");
+        List<Task> allWords = tasks.findWholeWords("read book");
+
+        // Assert
+        assertEquals(List.of(book, both), matches);
+        assertEquals(List.of(book, both), allWords);
+    }
+
+    @Test
+    void findWholeWordsFollowsRemoveAndSort() throws SomException {
+        // Arrange
+        Todo first = new Todo("read book");
+        Deadline second = new Deadline("return book", "2099-06-11 1900");
+        tasks.add(first);
+        tasks.add(second);
+        tasks.add(new Todo("book club"));
+
+        // Act
+        tasks.remove(2);
+        tasks.sortTasks();
+
+        // Assert
+        assertEquals(List.of(second, first), tasks.findWholeWords("book"));
+    }
+
+    @Test
+    void findFuzzyRanksClosestFirst() {
+        // Arrange
+        Todo book = new Todo("read book");
+        tasks.add(book);
+        Todo books = new Todo("return books");
+        tasks.add(books);
+        tasks.add(new Todo("buy milk"));
+
+        // Act
+        List<Task> matches = tasks.findFuzzy("boooks");
+
+        // Assert
+        assertEquals(List.of(books, book), matches);
+    }
+
+    @Test
+    void findFuzzyKeepsListOrderAmongEqualDistances() throws SomException {
+        // Arrange
+        Deadline boom = new Deadline("read boom", "2099-08-12 0900");
+        tasks.add(boom);
+        Deadline bok = new Deadline("read bok", "2099-08-11 0900");
+        tasks.add(bok);
+        tasks.sortTasks();
+
+        // Act
+        List<Task> matches = tasks.findFuzzy("book");
+
+        // Assert
+        assertEquals(List.of(bok, boom), matches);
+    }
+
+    @Test
+    void findBetweenReturnsOverlappingTasksByStartTime() throws SomException {
+        // Arrange
+        tasks.add(new Todo("read book"));
+        Event trip = new Event("Trip", "2099-08-09 0800", "2099-08-12 2000");
+        tasks.add(trip);
+        Deadline report = new Deadline("Submit report", "2099-08-11 2359");
+        tasks.add(report);
+        tasks.add(new Deadline("Pay bills", "2099-08-12 0900"));
+        Event sync = new Event("Team sync", "2099-08-11 0900", "2099-08-11 1000");
+        tasks.add(sync);
+
+        // Act
+        List<Task> matches = tasks.findBetween(LocalDateTime.of(2099, 8, 11, 0, 0),
+                LocalDateTime.of(2099, 8, 11, 23, 59));
+
+        // Assert
+        assertEquals(List.of(trip, sync, report), matches);
+    }
+
+    @Test
+    void findBetweenFollowsRemove() throws SomException {
+        // Arrange
+        Deadline first = new Deadline("First", "2099-01-01 1000");
+        tasks.add(first);
+        Deadline second = new Deadline("Second", "2099-01-01 1000");
+        tasks.add(second);
+
+        // Act
+        tasks.remove(0);
+        List<Task> matches = tasks.findBetween(LocalDateTime.of(2099, 1, 1, 0, 0),
+                LocalDateTime.of(2099, 1, 2, 0, 0));
+
+        // Assert
+        assertEquals(List.of(second), matches);
+    }
+
+    @Test
+    void removeAllKeepsRemainingTasksInOrder() throws SomException {
+        // Arrange
+        Todo first = new Todo("read book");
+        Todo second = new Todo("buy milk");
+        Todo third = new Todo("return book");
+        Todo fourth = new Todo("walk dog");
+        tasks.add(first);
+        tasks.add(second);
+        tasks.add(third);
+        tasks.add(fourth);
+
+        // Act
+        List<Task> removed = tasks.removeAll(new int[] {0, 2});
+
+        // Assert
+        assertEquals(List.of(first, third), removed);
+        assertEquals(2, tasks.size());
+        assertEquals(second, tasks.get(0));
+        assertEquals(fourth, tasks.get(1));
+        assertEquals(List.of(), tasks.findTasks("book"));
+    }
+
+    @Test
+    void removeAllOutOfRangeThrowsSomException() {
+        // Arrange
+        tasks.add(new Todo("read book"));
+
+        // Act & Assert
+        assertThrows(SomException.class, () -> tasks.removeAll(new int[] {0, 1}));
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    void statsFollowAddMarkAndRemove() throws SomException {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2099, 6, 10, 12, 0);
+        tasks.add(new Todo("read book"));
+        tasks.add(new Deadline("overdue report", now.minusDays(1)));
+        tasks.add(new Deadline("due tomorrow", now.plusDays(1)));
+        tasks.add(new Deadline("due next month", now.plusMonths(1)));
+        tasks.add(new Event("team sync", now.plusHours(1), now.plusHours(2)));
+
+        // Act
+        tasks.mark(0);
+        tasks.mark(3);
+        tasks.remove(3);
+        StatsIndex.Stats stats = tasks.getStats(now);
+
+        // Assert
+        assertEquals(4, stats.total());
+        assertEquals(1, stats.done());
+        assertEquals(1, stats.todos());
+        assertEquals(2, stats.deadlines());
+        assertEquals(1, stats.overdue());
+        assertEquals(1, stats.dueThisWeek());
+        assertEquals(2, tasks.getStats(now.plusDays(3)).overdue());
+    }
+
+    @Test
+    void statsCountDeadlinesThatFallDueLater() throws SomException {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2099, 6, 10, 12, 0);
+        tasks.add(new Deadline("due tomorrow", now.plusDays(1)));
+        tasks.add(new Deadline("due in ten days", now.plusDays(10)));
+
+        // Act
+        StatsIndex.Stats today = tasks.getStats(now);
+        StatsIndex.Stats later = tasks.getStats(now.plusDays(2));
+        tasks.unmark(0);
+        StatsIndex.Stats earlier = tasks.getStats(now);
+
+        // Assert
+        assertEquals(0, today.overdue());
+        assertEquals(1, today.dueThisWeek());
+        assertEquals(1, today.dueByDay()[1]);
+        assertEquals(1, later.overdue());
+        assertEquals(0, earlier.overdue());
+    }
+
+    @Test
+    void remindersFallDueAnHourAheadAndFollowChanges() throws SomException {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2099, 6, 10, 12, 0);
+        Deadline report = new Deadline("submit report", now.plusHours(2));
+        Event sync = new Event("team sync", now.plusMinutes(90), now.plusHours(3));
+        tasks.add(new Todo("read book"));
+        tasks.add(report);
+        tasks.add(sync);
+        tasks.add(new Deadline("pay bills", now.plusHours(3)));
+        tasks.add(new Deadline("call mom", now.plusHours(4)));
+
+        // Act
+        List<Task> none = tasks.takeDueReminders(now);
+        List<Task> first = tasks.takeDueReminders(now.plusMinutes(30));
+        List<Task> second = tasks.takeDueReminders(now.plusHours(1));
+        tasks.mark(3);
+        tasks.remove(4);
+        List<Task> cancelled = tasks.takeDueReminders(now.plusHours(5));
+        tasks.unmark(3);
+        List<Task> unmarkedLate = tasks.takeDueReminders(now.plusHours(6));
+
+        // Assert
+        assertEquals(List.of(), none);
+        assertEquals(List.of(sync), first);
+        assertEquals(List.of(report), second);
+        assertEquals(List.of(), cancelled);
+        assertEquals(List.of(), unmarkedLate);
+        assertEquals(List.of(), tasks.takeDueReminders(now.plusHours(1)));
+    }
+
+    @Test
+    void remindersFireInDueOrderAfterLongGaps() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2099, 1, 1, 0, 0);
+        Deadline nextYear = new Deadline("renew passport", now.plusYears(1));
+        Deadline nextWeek = new Deadline("return book", now.plusWeeks(1).plusMinutes(3));
+        Deadline tomorrow = new Deadline("buy groceries", now.plusDays(1));
+        tasks.add(nextYear);
+        tasks.add(nextWeek);
+        tasks.add(tomorrow);
+
+        // Act
+        List<Task> firstMonth = tasks.takeDueReminders(now.plusMonths(1));
+        List<Task> rest = tasks.takeDueReminders(now.plusYears(2));
+
+        // Assert
+        assertEquals(List.of(tomorrow, nextWeek), firstMonth);
+        assertEquals(List.of(nextYear), rest);
+    }
+
+    @Test
+    void idsFindTasksAfterRemovalsAndSorting() throws SomException {
+        // Arrange
+        Task book = new Todo("read book");
+        Task late = new Deadline("late", LocalDateTime.of(2099, 5, 1, 12, 0));
+        Task early = new Deadline("early", LocalDateTime.of(2099, 4, 1, 12, 0));
+        Task milk = new Todo("buy milk");
+        tasks.add(book);
+        tasks.add(late);
+        tasks.add(early);
+        tasks.add(milk);
+        long bookId = book.getId();
+
+        // Act
+        tasks.remove(0);
+        int milkAfterRemove = tasks.indexOfId(milk.getId());
+        tasks.sortTasks();
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L, 4L), List.of(bookId, late.getId(), early.getId(), milk.getId()));
+        assertEquals(2, milkAfterRemove);
+        assertEquals(0, tasks.indexOfId(early.getId()));
+        assertEquals(1, tasks.indexOfId(late.getId()));
+        assertEquals(2, tasks.indexOfId(milk.getId()));
+        assertThrows(SomException.class, () -> tasks.indexOfId(bookId));
+        tasks.add(new Todo("call mom"));
+        assertEquals(5, tasks.get(3).getId());
+    }
+
+    @Test
+    void tasksWithoutIdsAreNumberedWhenListIsBuilt() throws SomException {
+        // Arrange
+        Task first = new Todo("read book");
+        Task second = new Todo("buy milk");
+        Task third = new Todo("call mom");
+        second.setId(7);
+        third.setId(7);
+
+        // Act
+        TaskList numbered = new TaskList(new ArrayList<>(List.of(first, second, third)));
+
+        // Assert
+        assertTrue(numbered.hasNewIds());
+        assertEquals(8, first.getId());
+        assertEquals(7, second.getId());
+        assertEquals(9, third.getId());
+        assertEquals(2, numbered.indexOfId(9));
+        assertFalse(new TaskList(numbered.getAllTasks()).hasNewIds());
+    }
+
+    @Test
+    void sortTasksKeepsEqualTimesInListOrder() throws SomException {
+        // Arrange
+        Todo book = new Todo("read book");
+        tasks.add(book);
+        Deadline late = new Deadline("Late", "2099-05-01 1200");
+        tasks.add(late);
+        Event early = new Event("Early", "2099-04-01 1200", "2099-04-02 1200");
+        tasks.add(early);
+        Todo milk = new Todo("buy milk");
+        tasks.add(milk);
+        Deadline alsoEarly = new Deadline("Also early", "2099-04-01 1200");
+        tasks.add(alsoEarly);
+        tasks.remove(0);
+        tasks.add(book);
+
+        // Act
+        boolean isChanged = tasks.sortTasks();
+
+        // Assert
+        assertTrue(isChanged);
+        assertEquals(List.of(early, alsoEarly, late, milk, book), tasks.getAllTasks());
+        assertEquals(List.of(book), tasks.findTasks("book"));
+        assertFalse(tasks.sortTasks());
+    }
 
+    @Test
+    void undoAndRedoReverseEachKindOfChange() throws SomException {
+        // Arrange
+        Todo book = new Todo("read book");
+        Deadline report = new Deadline("submit report", "2099-05-01 1200");
+        Event trip = new Event("book trip", "2099-04-01 0900", "2099-04-03 1800");
+        Todo milk = new Todo("buy milk");
+        tasks.add(book);
+        tasks.add(report);
+        tasks.add(trip);
+        List<Task> added = tasks.getAllTasks();
+        tasks.add(milk);
+        tasks.markAll(new int[] {0, 1}, true);
+        tasks.removeAll(new int[] {1, 3});
+        List<Task> removed = tasks.getAllTasks();
+        tasks.sortTasks();
+
+        // Act
+        tasks.undo();
+        List<Task> unsorted = tasks.getAllTasks();
+        tasks.undo();
+        List<Task> restored = tasks.getAllTasks();
+        boolean isReportDone = report.isDone();
+        tasks.undo();
+        boolean isReportUnmarked = !report.isDone();
+        UndoHistory.Result undoneAdd = tasks.undo();
+        List<Task> afterUndos = tasks.getAllTasks();
+        tasks.redo();
+        tasks.redo();
+
+        // Assert
+        assertEquals(removed, unsorted);
+        assertEquals(List.of(book, report, trip, milk), restored);
+        assertTrue(isReportDone && isReportUnmarked);
+        assertEquals("adding " + milk, undoneAdd.summary());
+        assertEquals(added, afterUndos);
+        assertEquals(List.of(book, report, trip, milk), tasks.getAllTasks());
+        assertTrue(book.isDone());
+        assertEquals(List.of(book, trip), tasks.findTasks("book"));
+        assertEquals(List.of(trip, report), tasks.findBetween(LocalDateTime.of(2099, 1, 1, 0, 0),
+                LocalDateTime.of(2099, 12, 31, 0, 0)));
+        assertEquals(2, tasks.indexOfId(trip.getId()));
+        assertEquals(2, tasks.getStats(LocalDateTime.of(2099, 1, 1, 0, 0)).done());
+    }
+
+    @Test
+    void newChangeDiscardsRedoAndHistoryIsBounded() throws SomException {
+        // Arrange
+        System.setProperty("som.undo.depth", "2");
+        TaskList bounded;
+        try {
+            bounded = new TaskList();
+        } finally {
+            System.clearProperty("som.undo.depth");
+        }
+        for (int i = 0; i < 4; i++) {
+            bounded.add(new Todo("task " + i));
+        }
+
+        // Act
+        bounded.undo();
+        bounded.undo();
+        SomException tooDeep = assertThrows(SomException.class, bounded::undo);
+        bounded.redo();
+        bounded.add(new Todo("task 4"));
+
+        // Assert
+        assertEquals("There is nothing to undo.", tooDeep.getMessage());
+        assertThrows(SomException.class, bounded::redo);
+        assertEquals(4, bounded.size());
+        assertEquals("task 4", bounded.getDescription(3));
+    }
+
+    @Test
+    void historyIsBoundedByTasksCovered() throws SomException {
+        // Arrange
+        System.setProperty("som.undo.tasks", "4");
+        TaskList bounded;
+        try {
+            bounded = new TaskList();
+        } finally {
+            System.clearProperty("som.undo.tasks");
+        }
+        Deadline report = new Deadline("submit report", "2099-03-12 2359");
+        bounded.add(report);
+        Deadline bills = new Deadline("pay bills", "2099-03-11 2359");
+        bounded.add(bills);
+        Deadline rent = new Deadline("pay rent", "2099-03-10 2359");
+        bounded.add(rent);
+        bounded.mark(0);
+        bounded.sortTasks();
+
+        // Act
+        UndoHistory.Result undoneSort = bounded.undo();
+        UndoHistory.Result undoneMark = bounded.undo();
+        SomException tooDeep = assertThrows(SomException.class, bounded::undo);
+
+        // Assert
+        assertEquals("sorting the list", undoneSort.summary());
+        assertEquals("marking 1 task", undoneMark.summary());
+        assertEquals("There is nothing to undo.", tooDeep.getMessage());
+        assertEquals(List.of(report, bills, rent), bounded.getAllTasks());
+        assertFalse(bounded.get(0).isDone());
+    }
+
+    @Test
+    void undoDeleteKeepsEqualTimesInListOrder() throws SomException {
+        // Arrange
+        Todo book = new Todo("read book");
+        Deadline first = new Deadline("return book", "2099-04-01 1200");
+        Todo milk = new Todo("buy milk");
+        Deadline second = new Deadline("pay for book", "2099-04-01 1200");
+        tasks.add(book);
+        tasks.add(first);
+        tasks.add(milk);
+        tasks.add(second);
+        tasks.findTasks("book"); // builds the posting lists before the delete
+        tasks.remove(1);
+
+        // Act
+        tasks.undo();
+        List<Task> found = tasks.findTasks("book");
+        List<Task> between = tasks.findBetween(LocalDateTime.of(2099, 4, 1, 0, 0), LocalDateTime.of(2099, 4, 2, 0, 0));
+        tasks.sortTasks();
+
+        // Assert
+        assertEquals(List.of(book, first, second), found);
+        assertEquals(List.of(first, second), between);
+        assertEquals(List.of(first, second, book, milk), tasks.getAllTasks());
+    }
+
+    @Test
+    void autoSortInsertsTasksInOrder() throws SomException {
+        // Arrange
+        System.setProperty("som.sort.auto", "true");
+        TaskList sorted;
+        try {
+            sorted = new TaskList();
+        } finally {
+            System.clearProperty("som.sort.auto");
+        }
+        Deadline late = new Deadline("Late book", "2099-05-01 1200");
+        Deadline early = new Deadline("Early book", "2099-04-01 1200");
+        Todo book = new Todo("read book");
+
+        // Act
+        int lateIndex = sorted.add(late);
+        int bookIndex = sorted.add(book);
+        int earlyIndex = sorted.add(early);
+
+        // Assert
+        assertEquals(List.of(0, 1, 0), List.of(lateIndex, bookIndex, earlyIndex));
+        assertEquals(List.of(early, late, book), sorted.getAllTasks());
+        assertEquals(List.of(early, late, book), sorted.findTasks("book"));
+    }
 }
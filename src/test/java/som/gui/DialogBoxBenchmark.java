@@ -0,0 +1,95 @@
+package som.gui;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+
+import javafx.application.Platform;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+
+/**
+ * Compares how many dialog boxes per second are created by loading /view/DialogBox.fxml,
+ * as DialogBox used to, and by building them in code.
+ * <p>Each box is attached to a scene and styled with {@code applyCss()}, so the CSS lookups
+ * are measured too. Run with {@code java -cp <test classpath> som.gui.DialogBoxBenchmark [count]}
+ * on a machine with a display.</p>
+ */
+public class DialogBoxBenchmark {
+    private static final int ROUNDS = 5;
+
+    /**
+     * Runs the benchmark, creating the given number of boxes per round, 10k by default.
+     *
+     * @param args the number of boxes to create per round.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int count = args.length == 0 ? 10_000 : Integer.parseInt(args[0]);
+        CountDownLatch done = new CountDownLatch(1);
+        Platform.startup(() -> {
+            try {
+                run(count);
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                done.countDown();
+            }
+        });
+        done.await();
+        Platform.exit();
+    }
+
+    private static void run(int count) throws IOException {
+        Image image = new Image(DialogBoxBenchmark.class.getResourceAsStream("/images/DaSom.jpg"));
+        Group root = new Group();
+        new Scene(root);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                HBox box = loadFromFxml("reply " + i, image);
+                root.getChildren().setAll(box);
+                box.applyCss();
+            }
+            long fxmlNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                HBox box = DialogBox.getSomDialog("reply " + i, image);
+                root.getChildren().setAll(box);
+                box.applyCss();
+            }
+            long codeNanos = System.nanoTime() - start;
+
+            System.out.printf("round %d: fxml %,10.0f boxes/s  code %,10.0f boxes/s  (%4.1fx)%n", round + 1,
+                    count / (fxmlNanos / 1e9), count / (codeNanos / 1e9), (double) fxmlNanos / codeNanos);
+        }
+    }
+
+    private static HBox loadFromFxml(String text, Image image) throws IOException {
+        FxmlDialog controller = new FxmlDialog();
+        HBox box = new HBox();
+        FXMLLoader loader = new FXMLLoader(DialogBoxBenchmark.class.getResource("/view/DialogBox.fxml"));
+        loader.setRoot(box);
+        loader.setController(controller);
+        loader.load();
+        controller.dialog.setText(text);
+        controller.displayPicture.setImage(image);
+        return box;
+    }
+
+    /**
+     * Receives the nodes of DialogBox.fxml, as DialogBox did when it was loaded from FXML.
+     */
+    public static class FxmlDialog {
+        @FXML
+        private Label dialog;
+        @FXML
+        private ImageView displayPicture;
+    }
+}
@@ -0,0 +1,105 @@
+package som.workload;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import som.TaskColumns;
+import som.TaskList;
+import som.task.Deadline;
+import som.task.Event;
+import som.task.Task;
+import som.task.Todo;
+
+/**
+ * Measures the heap retained per task by each way of holding the task list.
+ * <p>The same generated tasks are held as an {@code ArrayList<Task>}, as a TaskList with its
+ * default indexes, and as a {@link TaskColumns}; the heap in use after a full GC is compared
+ * against the heap in use before the tasks were created.</p>
+ * <p>Usage: {@code HeapFootprint [--tasks N] [--seed N]}, by default 1M tasks, or
+ * {@code ./gradlew measureHeap --args="..."}. Give the JVM enough heap, e.g. -Xmx4g.</p>
+ */
+public class HeapFootprint {
+    private static final String[] WORDS = {"read", "return", "book", "submit", "report", "call", "mom", "pay",
+        "bills", "project", "meeting", "team", "sync", "dentist", "library", "groceries", "trip", "slides"};
+
+    /**
+     * Creates the tasks and prints the heap retained per task.
+     *
+     * @param args the options, see the class description.
+     */
+    public static void main(String[] args) {
+        int taskCount = 1_000_000;
+        long seed = 42;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+            case "--tasks":
+                taskCount = Integer.parseInt(args[i + 1]);
+                break;
+            case "--seed":
+                seed = Long.parseLong(args[i + 1]);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        long base = usedHeap();
+        List<Task> objects = create(taskCount, seed);
+        long objectBytes = usedHeap() - base;
+        TaskList indexed = new TaskList(objects);
+        long indexedBytes = usedHeap() - base;
+        TaskColumns columns = new TaskColumns(objects);
+        objects = null;
+        indexed = null;
+        long columnBytes = usedHeap() - base;
+
+        System.out.printf("%,d tasks, %,d bytes of description text%n", columns.size(), textBytes(columns));
+        System.out.printf("%-28s %12s %10s%n", "representation", "heap (MB)", "B/task");
+        print("ArrayList<Task>", objectBytes, taskCount);
+        print("TaskList with indexes", indexedBytes, taskCount);
+        print("TaskColumns", columnBytes, taskCount);
+    }
+
+    private static List<Task> create(int taskCount, long seed) {
+        Random random = new Random(seed);
+        LocalDateTime start = LocalDateTime.of(2099, 1, 1, 0, 0);
+        List<Task> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + i;
+            LocalDateTime time = start.plusMinutes(random.nextInt(5_000_000));
+            Task task = switch (random.nextInt(3)) {
+            case 0 -> new Todo(description);
+            case 1 -> new Deadline(description, time);
+            default -> new Event(description, time, time.plusMinutes(30 + random.nextInt(600)));
+            };
+            if (random.nextInt(4) == 0) {
+                task.markAsDone();
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static long textBytes(TaskColumns columns) {
+        long bytes = 0;
+        for (int i = 0; i < columns.size(); i++) {
+            bytes += columns.getDescription(i).length();
+        }
+        return bytes;
+    }
+
+    private static void print(String name, long bytes, int taskCount) {
+        System.out.printf("%-28s %,12.1f %,10.1f%n", name, bytes / 1e6, (double) bytes / taskCount);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,188 @@
+package som.workload;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+/**
+ * Generates a task file and a command script for replaying production-sized sessions.
+ * <p>The task file is a som.txt holding a mix of todos, deadlines and events. The command
+ * script holds one command per line, drawn from a weighted mix of every command type.
+ * Index-based commands always name an existing task, since the generator tracks the size
+ * the list will have at each step of the replay. The same seed always gives the same files.</p>
+ * <p>Usage: {@code WorkloadGenerator [--tasks N] [--commands N] [--seed N] [--out DIR]},
+ * by default 10k tasks and 10k commands written to build/workload, or
+ * {@code ./gradlew generateWorkload --args="..."}. Replay the result with {@link WorkloadReplay}.</p>
+ */
+public class WorkloadGenerator {
+    static final String TASK_FILE = "som.txt";
+    static final String COMMAND_FILE = "commands.txt";
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final String[] VERBS = {"read", "return", "buy", "submit", "call", "pay", "review", "plan",
+        "clean", "book", "email", "prepare", "fix", "water", "renew"};
+    private static final String[] NOUNS = {"book", "library card", "groceries", "report", "mom", "bills", "notes",
+        "trip", "kitchen", "dentist", "slides", "bike", "plants", "passport", "project proposal", "meeting agenda"};
+    private static final String[] EVENTS = {"project meeting", "team sync", "birthday party", "lecture", "gym session",
+        "dinner with friends", "conference", "workshop", "interview", "concert"};
+
+    /** Relative weights of the generated commands, in the order of {@link #nextCommand()}'s cases. */
+    private static final int[] WEIGHTS = {20, 12, 8, 14, 4, 8, 14, 6, 2, 3, 4, 5};
+
+    private final Random random;
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(0).withMinute(0);
+    private int size;
+
+    private WorkloadGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Writes the task file and command script.
+     *
+     * @param args the options, see the class description.
+     */
+    public static void main(String[] args) throws IOException {
+        int taskCount = 10_000;
+        int commandCount = 10_000;
+        long seed = 42;
+        Path out = Paths.get("build", "workload");
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+            case "--tasks":
+                taskCount = Integer.parseInt(args[i + 1]);
+                break;
+            case "--commands":
+                commandCount = Integer.parseInt(args[i + 1]);
+                break;
+            case "--seed":
+                seed = Long.parseLong(args[i + 1]);
+                break;
+            case "--out":
+                out = Paths.get(args[i + 1]);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        Files.createDirectories(out);
+        WorkloadGenerator generator = new WorkloadGenerator(seed);
+        try (BufferedWriter writer = Files.newBufferedWriter(out.resolve(TASK_FILE))) {
+            for (int i = 0; i < taskCount; i++) {
+                writer.write(generator.nextTaskLine());
+                writer.newLine();
+            }
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(out.resolve(COMMAND_FILE))) {
+            for (int i = 0; i < commandCount; i++) {
+                writer.write(generator.nextCommand());
+                writer.newLine();
+            }
+        }
+        System.out.printf("Wrote %,d tasks and %,d commands to %s%n", taskCount, commandCount, out.toAbsolutePath());
+    }
+
+    /**
+     * Returns a task in the data file format, e.g. {@code D | 0 | return book | 2026-03-10 1800}.
+     */
+    private String nextTaskLine() {
+        size++;
+        String done = random.nextInt(3) == 0 ? "1" : "0";
+        switch (random.nextInt(3)) {
+        case 0:
+            return "T | " + done + " | " + description();
+        case 1:
+            return "D | " + done + " | " + description() + " | " + DATE_TIME.format(dateTime());
+        default:
+            LocalDateTime from = dateTime();
+            return "E | " + done + " | " + pick(EVENTS) + " | " + DATE_TIME.format(from)
+                    + " | " + DATE_TIME.format(from.plusMinutes(30L * (1 + random.nextInt(8))));
+        }
+    }
+
+    private String nextCommand() {
+        int choice = weightedChoice();
+        if (size == 0 && choice >= 3 && choice <= 5) {
+            choice = 0; // nothing to mark or delete yet
+        }
+        switch (choice) {
+        case 0:
+            size++;
+            return "todo " + description();
+        case 1:
+            size++;
+            return "deadline " + description() + " /by " + DATE_TIME.format(dateTime());
+        case 2: {
+            size++;
+            LocalDateTime from = dateTime();
+            return "event " + pick(EVENTS) + " /from " + DATE_TIME.format(from)
+                    + " /to " + DATE_TIME.format(from.plusHours(1 + random.nextInt(3)));
+        }
+        case 3:
+            return "mark " + (1 + random.nextInt(size));
+        case 4:
+            return "unmark " + (1 + random.nextInt(size));
+        case 5:
+            return "delete " + (1 + random.nextInt(size--));
+        case 6:
+            return "find " + word();
+        case 7:
+            return "find -w " + word();
+        case 8:
+            return "sort";
+        case 9:
+            return "list";
+        case 10:
+            return "on " + DATE.format(dateTime());
+        default: {
+            LocalDateTime from = dateTime();
+            return "between " + DATE.format(from) + " /to " + DATE.format(from.plusDays(1 + random.nextInt(14)));
+        }
+        }
+    }
+
+    private int weightedChoice() {
+        int total = 0;
+        for (int weight : WEIGHTS) {
+            total += weight;
+        }
+        int pick = random.nextInt(total);
+        for (int i = 0; i < WEIGHTS.length; i++) {
+            pick -= WEIGHTS[i];
+            if (pick < 0) {
+                return i;
+            }
+        }
+        return WEIGHTS.length - 1;
+    }
+
+    private String description() {
+        return pick(VERBS) + " " + pick(NOUNS);
+    }
+
+    /**
+     * Returns a word of a task description, shortened now and then to a prefix.
+     */
+    private String word() {
+        String word = pick(random.nextBoolean() ? VERBS : NOUNS).split(" ")[0];
+        return random.nextInt(4) == 0 && word.length() > 3 ? word.substring(0, 3) : word;
+    }
+
+    /**
+     * Returns a time on the hour or half hour within the year after tomorrow.
+     */
+    private LocalDateTime dateTime() {
+        return start.plusMinutes(30L * random.nextInt(365 * 48));
+    }
+
+    private String pick(String[] options) {
+        return options[random.nextInt(options.length)];
+    }
+}
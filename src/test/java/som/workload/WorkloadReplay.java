@@ -0,0 +1,131 @@
+package som.workload;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import som.Som;
+import som.SomException;
+import som.Storage;
+
+/**
+ * Replays a generated workload through {@link Som#getResponse(String)} without the GUI.
+ * <p>The task file is copied into a fresh data directory, so the workload can be replayed
+ * any number of times, and the directory is handed to Som through {@code -Dsom.data.dir}.
+ * Every command is timed, and the report lists the load time, overall throughput, the
+ * p50 and p99 latency of each command type and the peak heap usage.</p>
+ * <p>Usage: {@code WorkloadReplay [--workload DIR] [--data DIR]}, by default replaying
+ * build/workload in a temporary directory, or {@code ./gradlew replayWorkload --args="..."}.
+ * Other settings such as {@code -Dsom.format=binary} are passed as JVM options.</p>
+ */
+public class WorkloadReplay {
+    /**
+     * Replays the workload and prints the report.
+     *
+     * @param args the options, see the class description.
+     */
+    public static void main(String[] args) throws IOException, SomException {
+        Path workload = Paths.get("build", "workload");
+        Path data = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+            case "--workload":
+                workload = Paths.get(args[i + 1]);
+                break;
+            case "--data":
+                data = Paths.get(args[i + 1]);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        if (data == null) {
+            data = Files.createTempDirectory("som-replay");
+        }
+        Files.createDirectories(data);
+        Files.deleteIfExists(data.resolve("som.bin"));
+        Files.deleteIfExists(data.resolve("som.journal"));
+        Files.copy(workload.resolve(WorkloadGenerator.TASK_FILE), data.resolve("som.txt"),
+                StandardCopyOption.REPLACE_EXISTING);
+        System.setProperty("som.data.dir", data.toString());
+        List<String> commands = Files.readAllLines(workload.resolve(WorkloadGenerator.COMMAND_FILE));
+
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        long loadStart = System.nanoTime();
+        Som som = new Som();
+        long loadNanos = System.nanoTime() - loadStart;
+
+        Map<String, Latencies> latencies = new LinkedHashMap<>();
+        long start = System.nanoTime();
+        for (String command : commands) {
+            long commandStart = System.nanoTime();
+            som.getResponse(command);
+            latencies.computeIfAbsent(typeOf(command), type -> new Latencies())
+                    .add(System.nanoTime() - commandStart);
+        }
+        Storage.flush(); // count the writes still queued by the background writer
+        long totalNanos = System.nanoTime() - start;
+
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peakHeap += pool.getPeakUsage().getUsed();
+        }
+
+        System.out.printf("%nLoaded the task file in %.1f ms%n", loadNanos / 1e6);
+        System.out.printf("Replayed %,d commands in %.2f s (%,.0f commands/s)%n",
+                commands.size(), totalNanos / 1e9, commands.size() / (totalNanos / 1e9));
+        System.out.printf("%-10s %9s %12s %12s%n", "command", "count", "p50 (us)", "p99 (us)");
+        for (Map.Entry<String, Latencies> entry : latencies.entrySet()) {
+            Latencies type = entry.getValue();
+            System.out.printf("%-10s %,9d %,12.1f %,12.1f%n", entry.getKey(), type.count,
+                    type.percentile(0.50) / 1e3, type.percentile(0.99) / 1e3);
+        }
+        System.out.printf("Peak heap: %.1f MB (sum of the heap pools' peaks)%n", peakHeap / 1e6);
+    }
+
+    /**
+     * Returns the command word, keeping the options of find apart, e.g. "find -w".
+     */
+    private static String typeOf(String command) {
+        String[] words = command.trim().split(" ", 3);
+        if (words.length > 1 && words[0].equals("find") && words[1].startsWith("-")) {
+            return words[0] + " " + words[1];
+        }
+        return words[0];
+    }
+
+    /**
+     * Collects the latencies of one command type.
+     */
+    private static class Latencies {
+        private long[] nanos = new long[64];
+        private int count;
+
+        void add(long elapsed) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = elapsed;
+        }
+
+        long percentile(double fraction) {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            return sorted[Math.max(0, (int) Math.ceil(fraction * count) - 1)];
+        }
+    }
+}